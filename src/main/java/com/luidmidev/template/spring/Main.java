@@ -1,17 +1,19 @@
 package com.luidmidev.template.spring;
 
+import com.luidmidev.template.spring.security.ratelimit.RateLimitProperties;
 import com.waipersoft.store.FileStoreProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = {"com.luidmidev.template.spring", "com.waipersoft"})
-@EnableConfigurationProperties({FileStoreProperties.class})
+@EnableConfigurationProperties({FileStoreProperties.class, RateLimitProperties.class})
 @ConfigurationPropertiesScan(basePackages = {"com.waipersoft"})
-
+@EnableScheduling
 public class Main {
 
     public static void main(String[] args) {
@@ -1,33 +1,50 @@
 package com.luidmidev.template.spring.config;
 
 import ec.com.idrix.store.DiskFileStoreService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
-import org.springframework.web.servlet.i18n.SessionLocaleResolver;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Locale;
 import java.util.TimeZone;
 
 @Configuration
-public class Beans {
+public class Beans implements WebMvcConfigurer {
+
+    private static final String LOCALE_PARAM = "localeData";
 
     @Bean
-    public LocaleResolver localeResolver() {
-        var resolver = new SessionLocaleResolver();
-        resolver.setDefaultLocale(Locale.ENGLISH);
-        resolver.setDefaultTimeZone(TimeZone.getTimeZone("UTC"));
-        return resolver;
+    public LocaleResolver localeResolver(
+            @Value("${locale.supported:en,es}") Locale[] supportedLocales,
+            @Value("${locale.default:en}") Locale defaultLocale,
+            @Value("${locale.cookie-name:locale}") String cookieName,
+            @Value("${locale.cookie-max-age-days:365}") long cookieMaxAgeDays
+    ) {
+        return new StatelessLocaleResolver(LOCALE_PARAM, cookieName, Duration.ofDays(cookieMaxAgeDays), Arrays.asList(supportedLocales), defaultLocale, TimeZone.getTimeZone("UTC"));
     }
 
     @Bean
     public LocaleChangeInterceptor localeChangeInterceptor() {
         var interceptor = new LocaleChangeInterceptor();
-        interceptor.setParamName("localeData");
+        interceptor.setParamName(LOCALE_PARAM);
+        interceptor.setIgnoreInvalidLocale(true);
         return interceptor;
     }
 
+    /**
+     * Guarda en la cookie de idioma el idioma indicado en el parámetro {@value #LOCALE_PARAM}.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(localeChangeInterceptor());
+    }
+
     @Bean
     public DiskFileStoreService diskFileStoreService() {
         return new DiskFileStoreService();
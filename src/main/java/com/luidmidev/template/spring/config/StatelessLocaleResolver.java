@@ -0,0 +1,181 @@
+package com.luidmidev.template.spring.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import com.luidmidev.template.spring.utils.ExpiringLruCache;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.SimpleTimeZoneAwareLocaleContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.servlet.LocaleContextResolver;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Resuelve el idioma de cada solicitud sin guardar estado en el servidor.
+ * <p>
+ * El idioma se toma, en orden de prioridad, del parámetro de la solicitud, de la cookie y de la cabecera
+ * {@code Accept-Language}, y se ajusta a uno de los idiomas soportados; si ninguno coincide se usa el idioma por
+ * defecto. Cambiar el idioma (por ejemplo desde {@code LocaleChangeInterceptor}) solo escribe la cookie.
+ * <p>
+ * Los navegadores envían unos pocos valores distintos de {@code Accept-Language}, por lo que el resultado de cada
+ * valor se guarda en una caché LRU acotada y las solicitudes siguientes con el mismo valor no vuelven a analizarlo.
+ * Los valores los envía el cliente: los menos usados se desalojan y los demasiado largos no se guardan.
+ */
+public class StatelessLocaleResolver implements LocaleContextResolver {
+
+    private static final int MAX_CACHED_VALUES = 256;
+
+    private static final int MAX_CACHED_LENGTH = 256;
+
+    private static final String LOCALE_ATTRIBUTE = StatelessLocaleResolver.class.getName() + ".LOCALE";
+
+    /**
+     * Resultado guardado para los valores que no corresponden a ningún idioma soportado.
+     */
+    private static final Locale UNSUPPORTED = Locale.ROOT;
+
+    private final String paramName;
+    private final String cookieName;
+    private final Duration cookieMaxAge;
+    private final List<Locale> supportedLocales;
+    private final Locale defaultLocale;
+    private final TimeZone timeZone;
+
+    private final ExpiringLruCache<String, Locale> resolved = new ExpiringLruCache<>(MAX_CACHED_VALUES);
+
+    /**
+     * @param paramName        Parámetro de la solicitud con el idioma.
+     * @param cookieName       Cookie en la que se guarda el idioma elegido.
+     * @param cookieMaxAge     Duración de la cookie.
+     * @param supportedLocales Idiomas soportados, en orden de preferencia cuando varios coinciden.
+     * @param defaultLocale    Idioma cuando la solicitud no indica uno soportado.
+     * @param timeZone         Zona horaria de todas las solicitudes.
+     */
+    public StatelessLocaleResolver(String paramName, String cookieName, Duration cookieMaxAge, List<Locale> supportedLocales, Locale defaultLocale, TimeZone timeZone) {
+        if (supportedLocales.isEmpty()) throw new IllegalArgumentException("Debe haber al menos un idioma soportado");
+        this.paramName = paramName;
+        this.cookieName = cookieName;
+        this.cookieMaxAge = cookieMaxAge;
+        this.supportedLocales = List.copyOf(supportedLocales);
+        this.defaultLocale = defaultLocale;
+        this.timeZone = timeZone;
+    }
+
+    @Override
+    public Locale resolveLocale(HttpServletRequest request) {
+        if (request.getAttribute(LOCALE_ATTRIBUTE) instanceof Locale locale) return locale;
+
+        var locale = lookup(request.getParameter(paramName));
+        if (locale == null) locale = lookup(cookieValue(request));
+        if (locale == null) locale = lookup(request.getHeader(HttpHeaders.ACCEPT_LANGUAGE));
+        return locale != null ? locale : defaultLocale;
+    }
+
+    @Override
+    public LocaleContext resolveLocaleContext(HttpServletRequest request) {
+        return new SimpleTimeZoneAwareLocaleContext(resolveLocale(request), timeZone);
+    }
+
+    @Override
+    public void setLocale(HttpServletRequest request, HttpServletResponse response, Locale locale) {
+        var supported = locale == null ? null : match(locale);
+        if (supported != null) {
+            request.setAttribute(LOCALE_ATTRIBUTE, supported);
+        } else {
+            request.removeAttribute(LOCALE_ATTRIBUTE);
+        }
+        if (response == null) return;
+
+        var cookie = ResponseCookie.from(cookieName, supported != null ? supported.toLanguageTag() : "")
+                .path("/")
+                .maxAge(supported != null ? cookieMaxAge : Duration.ZERO)
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    @Override
+    public void setLocaleContext(HttpServletRequest request, HttpServletResponse response, LocaleContext localeContext) {
+        setLocale(request, response, localeContext != null ? localeContext.getLocale() : null);
+    }
+
+    private String cookieValue(HttpServletRequest request) {
+        var cookies = request.getCookies();
+        if (cookies == null) return null;
+        for (var cookie : cookies) {
+            if (cookieName.equals(cookie.getName())) return cookie.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Idioma soportado que corresponde a un valor del parámetro, de la cookie o de la cabecera, o {@code null} si no
+     * hay ninguno.
+     */
+    private Locale lookup(String value) {
+        if (value == null || value.isBlank()) return null;
+
+        var locale = value.length() > MAX_CACHED_LENGTH ? parse(value) : resolved.getOrLoad(value, this::parse);
+        return locale == UNSUPPORTED ? null : locale;
+    }
+
+    int cachedValues() {
+        return resolved.size();
+    }
+
+    /**
+     * Analiza una lista de idiomas con pesos ({@code es-EC,es;q=0.9,en;q=0.8}) o un único idioma ({@code es_EC}) y
+     * devuelve el idioma soportado con mayor peso.
+     */
+    Locale parse(String value) {
+        var best = UNSUPPORTED;
+        var bestQuality = 0.0;
+
+        for (var range : value.split(",")) {
+            var parts = range.split(";");
+            var tag = parts[0].trim().replace('_', '-');
+            if (tag.isEmpty() || tag.equals("*")) continue;
+
+            var quality = quality(parts);
+            if (quality <= bestQuality) continue;
+
+            var locale = match(Locale.forLanguageTag(tag));
+            if (locale != null) {
+                best = locale;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            var parameter = parts[i].trim();
+            if (!parameter.startsWith("q=")) continue;
+            try {
+                return Double.parseDouble(parameter.substring(2));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Idioma soportado igual al indicado o, si no lo hay, el primero con el mismo idioma sin considerar el país.
+     */
+    private Locale match(Locale locale) {
+        if (locale.getLanguage().isEmpty()) return null;
+        for (var supported : supportedLocales) {
+            if (supported.equals(locale)) return supported;
+        }
+        for (var supported : supportedLocales) {
+            if (supported.getLanguage().equals(locale.getLanguage())) return supported;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,148 @@
+package com.luidmidev.template.spring.controllers;
+
+import com.luidmidev.template.spring.dto.AuditPage;
+import com.luidmidev.template.spring.models.AuditAction;
+import com.luidmidev.template.spring.models.AuditArchive;
+import com.luidmidev.template.spring.services.AuditRetentionService;
+import com.luidmidev.template.spring.services.SessionAuditService;
+import com.luidmidev.template.spring.services.SpreadsheetExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Controlador para la consulta de la auditoría de sesiones.
+ */
+@RestController
+@RequestMapping("/audits")
+public class AuditController {
+
+    private final SpreadsheetExportService exportService;
+
+    private final SessionAuditService auditService;
+
+    private final AuditRetentionService retentionService;
+
+    AuditController(SpreadsheetExportService exportService, SessionAuditService auditService, AuditRetentionService retentionService) {
+        this.exportService = exportService;
+        this.auditService = auditService;
+        this.retentionService = retentionService;
+    }
+
+    /**
+     * Consulta los registros de auditoría, del más reciente al más antiguo, paginados por cursor.
+     *
+     * @param userId Identificador del usuario.
+     * @param from   Inicio del rango (yyyy-MM-ddTHH:mm:ss), inclusivo.
+     * @param to     Fin del rango (yyyy-MM-ddTHH:mm:ss), exclusivo.
+     * @param type   Código de la acción, por ejemplo {@code LOGIN}.
+     * @param after  Cursor de la página anterior ({@code nextCursor}).
+     * @param size   Tamaño de la página.
+     * @return La página de registros y el cursor de la siguiente.
+     */
+    @GetMapping
+    public ResponseEntity<AuditPage> find(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) AuditAction type,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size
+    ) {
+        return ResponseEntity.ok(auditService.find(userId, from, to, type, after, size));
+    }
+
+    /**
+     * Lee el registro de auditoría en archivos mapeados en memoria ({@code audit.sink=mapped}) en formato NDJSON,
+     * del más antiguo al más reciente, usando el índice temporal de los segmentos para empezar por el primer
+     * registro del rango.
+     *
+     * @param from   Inicio del rango (yyyy-MM-ddTHH:mm:ss), inclusivo.
+     * @param to     Fin del rango (yyyy-MM-ddTHH:mm:ss), exclusivo.
+     * @param userId Identificador del usuario.
+     * @param type   Tipo de acción: prefijo de la descripción.
+     * @return Una respuesta que escribe los registros directamente en el cuerpo.
+     */
+    @GetMapping(value = "/log", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> log(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String type
+    ) {
+        auditService.mappedLog();
+        StreamingResponseBody body = output -> auditService.streamLog(from, to, userId, type, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Lista los archivos de auditoría generados por la política de retención.
+     *
+     * @param from Primer día (yyyy-MM-dd), inclusivo.
+     * @param to   Último día (yyyy-MM-dd), inclusivo.
+     * @return Los archivos del rango, del día más antiguo al más reciente.
+     */
+    @GetMapping("/archives")
+    public ResponseEntity<List<AuditArchive>> archives(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(retentionService.findArchives(from, to));
+    }
+
+    /**
+     * Lee los registros de un archivo de auditoría en formato NDJSON, descomprimiéndolos y filtrándolos a medida que
+     * se transmiten.
+     *
+     * @param id     Identificador del archivo.
+     * @param userId Identificador del usuario.
+     * @param type   Tipo de acción: prefijo de la descripción.
+     * @return Una respuesta que escribe los registros directamente en el cuerpo.
+     */
+    @GetMapping(value = "/archives/{id}", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> archive(@PathVariable Long id, @RequestParam(required = false) Long userId, @RequestParam(required = false) String type) {
+        retentionService.findArchive(id);
+        StreamingResponseBody body = output -> retentionService.streamArchive(id, userId, type, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Exporta los registros de auditoría de un rango de fechas a una hoja de cálculo XLSX, escribiendo las filas a
+     * medida que se leen de la base de datos.
+     *
+     * @param from    Primer día a exportar (yyyy-MM-dd); por defecto, los últimos días configurados.
+     * @param to      Último día a exportar (yyyy-MM-dd); por defecto, hoy.
+     * @param columns Columnas a incluir: id, datetime, userId, username, ip, description. Por defecto, todas.
+     * @return Una respuesta que escribe el documento directamente en el cuerpo.
+     */
+    @GetMapping("/export/xlsx")
+    public ResponseEntity<StreamingResponseBody> exportXlsx(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<String> columns
+    ) {
+        var range = exportService.auditRange(from, to);
+        var selected = exportService.auditColumns(columns);
+        StreamingResponseBody body = output -> exportService.exportAudits(selected, range, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("auditoria-" + range.from() + "-" + range.to() + ".xlsx").build().toString())
+                .body(body);
+    }
+}
@@ -1,10 +1,12 @@
 package com.luidmidev.template.spring.controllers;
 
+import com.luidmidev.template.spring.dto.Availability;
 import com.luidmidev.template.spring.dto.Login;
 import com.luidmidev.template.spring.dto.RecoveryPasswordData;
 import com.luidmidev.template.spring.dto.Register;
 import com.luidmidev.template.spring.models.User;
 import com.luidmidev.template.spring.services.AuthenticationService;
+import com.luidmidev.template.spring.services.UserAvailabilityService;
 import com.luidmidev.template.spring.services.UserService;
 import jakarta.validation.Valid;
 import lombok.extern.log4j.Log4j2;
@@ -24,9 +26,12 @@ public class AuthenticationController {
 
     private final UserService userService;
 
-    AuthenticationController(AuthenticationService service, UserService userService) {
+    private final UserAvailabilityService availabilityService;
+
+    AuthenticationController(AuthenticationService service, UserService userService, UserAvailabilityService availabilityService) {
         this.service = service;
         this.userService = userService;
+        this.availabilityService = availabilityService;
     }
 
     /**
@@ -53,6 +58,19 @@ public class AuthenticationController {
         return ResponseEntity.ok().body(jwt);
     }
 
+    /**
+     * Comprueba si un nombre de usuario o un email están disponibles, para validar el formulario de registro
+     * mientras se escribe.
+     *
+     * @param username Nombre de usuario a comprobar.
+     * @param email    Email a comprobar.
+     * @return Una ResponseEntity con la disponibilidad de cada valor enviado.
+     */
+    @GetMapping(value = "/availability")
+    public ResponseEntity<Availability> availability(@RequestParam(required = false) String username, @RequestParam(required = false) String email) {
+        return ResponseEntity.ok().body(availabilityService.check(username, email, null));
+    }
+
     /**
      * Actualiza los datos de un usuario.
      *
@@ -2,16 +2,17 @@ package com.luidmidev.template.spring.controllers;
 
 
 import com.luidmidev.template.spring.exceptions.ClientException;
+import com.luidmidev.template.spring.services.FileDownloadService;
 import com.luidmidev.template.spring.utils.StringUtils;
 import com.waipersoft.store.FileStoreService;
 import com.waipersoft.store.FileStoreService.FileInfo;
 import com.waipersoft.store.targets.mongo.GridFSFileStoreService;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 
@@ -24,36 +25,38 @@ public class FileController {
 
     private final FileStoreService service;
 
-    FileController(GridFSFileStoreService service) {
+    private final FileDownloadService downloadService;
+
+    FileController(GridFSFileStoreService service, FileDownloadService downloadService) {
         this.service = service;
+        this.downloadService = downloadService;
     }
 
     /**
-     * Descarga el archivo correspondiente al ID especificado.
+     * Descarga el archivo correspondiente al ID especificado. El contenido se copia desde GridFS a la respuesta a
+     * medida que se lee, sin cargar el archivo completo en memoria.
      *
      * @param id ID del archivo a descargar.
-     * @return Una ResponseEntity que contiene el archivo como recurso de matriz de bytes si se descarga correctamente, o un mensaje de error si ocurre algún problema.
-     * @throws IOException Si ocurre un error durante la descarga del archivo.
+     * @return Una ResponseEntity que escribe el archivo directamente en el cuerpo, con su tamaño en {@code Content-Length}.
+     * @throws IOException Si ocurre un error al abrir el archivo.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ByteArrayResource> download(@PathVariable String id, @RequestParam(required = false) String inline) throws IOException {
-
-        var loadFile = service.download(id);
+    public ResponseEntity<StreamingResponseBody> download(@PathVariable String id, @RequestParam(required = false) String inline) throws IOException {
 
-        if (loadFile == null) {
-            throw new ClientException("El recurso ya no esta disponible", HttpStatus.NOT_FOUND);
-        }
+        var download = downloadService.open(id).orElseThrow(() -> new ClientException("El recurso ya no esta disponible", HttpStatus.NOT_FOUND));
 
         var isInline = inline != null && inline.equals("true");
 
-        var fileInfo = loadFile.getInfo();
+        var fileInfo = download.info();
         var filename = StringUtils.normalice(fileInfo.getFilename());
 
+        StreamingResponseBody body = output -> downloadService.transfer(download, output);
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .contentType(MediaType.parseMediaType(fileInfo.getFileType()))
                 .headers(getHeaders(filename, isInline))
-                .body(new ByteArrayResource(loadFile.getFile()));
+                .contentLength(download.length())
+                .body(body);
     }
 
 
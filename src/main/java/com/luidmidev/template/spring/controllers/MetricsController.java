@@ -0,0 +1,101 @@
+package com.luidmidev.template.spring.controllers;
+
+import com.luidmidev.template.spring.security.BoundedPasswordEncoder;
+import com.luidmidev.template.spring.security.BoundedPasswordEncoder.HashingStats;
+import com.luidmidev.template.spring.security.PrincipalCache;
+import com.luidmidev.template.spring.security.jwt.Jwt;
+import com.luidmidev.template.spring.services.AuditSink;
+import com.luidmidev.template.spring.services.EmailDeliveryWorker;
+import com.luidmidev.template.spring.services.EmailDeliveryWorker.EmailOutboxStats;
+import com.luidmidev.template.spring.services.UserAvailabilityService;
+import com.luidmidev.template.spring.services.UserAvailabilityService.AvailabilityStats;
+import com.luidmidev.template.spring.utils.ExpiringLruCache.CacheStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador con métricas internas de la aplicación, usadas para dimensionar cachés y colas.
+ */
+@RestController
+@RequestMapping("/metrics")
+public class MetricsController {
+
+    private final Jwt jwt;
+    private final PrincipalCache principalCache;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final UserAvailabilityService availabilityService;
+    private final AuditSink auditSink;
+    private final EmailDeliveryWorker emailDeliveryWorker;
+
+    MetricsController(Jwt jwt, PrincipalCache principalCache, BoundedPasswordEncoder passwordEncoder, UserAvailabilityService availabilityService, AuditSink auditSink, EmailDeliveryWorker emailDeliveryWorker) {
+        this.jwt = jwt;
+        this.principalCache = principalCache;
+        this.passwordEncoder = passwordEncoder;
+        this.availabilityService = availabilityService;
+        this.auditSink = auditSink;
+        this.emailDeliveryWorker = emailDeliveryWorker;
+    }
+
+    /**
+     * Obtiene las estadísticas de la caché de tokens JWT verificados.
+     *
+     * @return Aciertos, fallos, desalojos y ocupación de la caché.
+     */
+    @GetMapping("/jwt-cache")
+    public ResponseEntity<CacheStats> jwtCache() {
+        return ResponseEntity.ok(jwt.getCacheStats());
+    }
+
+    /**
+     * Obtiene las estadísticas de la caché de usuarios autenticados.
+     *
+     * @return Aciertos, fallos, desalojos y ocupación de la caché.
+     */
+    @GetMapping("/principal-cache")
+    public ResponseEntity<CacheStats> principalCache() {
+        return ResponseEntity.ok(principalCache.stats());
+    }
+
+    /**
+     * Obtiene las métricas del grupo de hilos de hashing de contraseñas.
+     *
+     * @return Profundidad de la cola, operaciones completadas y rechazadas y latencias.
+     */
+    @GetMapping("/password-hashing")
+    public ResponseEntity<HashingStats> passwordHashing() {
+        return ResponseEntity.ok(passwordEncoder.stats());
+    }
+
+    /**
+     * Obtiene los contadores de las comprobaciones de disponibilidad de nombres de usuario y emails.
+     *
+     * @return Comprobaciones resueltas con el filtro de Bloom y comprobaciones que consultaron la base de datos.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityStats> availability() {
+        return ResponseEntity.ok(availabilityService.stats());
+    }
+
+    /**
+     * Obtiene las métricas del destino de auditoría configurado ({@code audit.sink}).
+     *
+     * @return Para {@code jdbc}, ocupación del búfer y registros escritos, descartados y fallidos; para
+     * {@code mapped}, segmento activo, registros escritos y fallidos, rotaciones y sincronizaciones.
+     */
+    @GetMapping("/audit-sink")
+    public ResponseEntity<Object> auditSink() {
+        return ResponseEntity.ok(auditSink.stats());
+    }
+
+    /**
+     * Obtiene las métricas de la bandeja de salida de emails.
+     *
+     * @return Emails pendientes y antigüedad del más antiguo, emails enviados, intentos fallidos y emails descartados.
+     */
+    @GetMapping("/email-outbox")
+    public ResponseEntity<EmailOutboxStats> emailOutbox() {
+        return ResponseEntity.ok(emailDeliveryWorker.stats());
+    }
+}
@@ -1,11 +1,28 @@
 package com.luidmidev.template.spring.controllers;
 
 
+import com.luidmidev.template.spring.dto.BulkUpdateResult;
+import com.luidmidev.template.spring.dto.BulkUserUpdate;
+import com.luidmidev.template.spring.dto.ImportJobStatus;
 import com.luidmidev.template.spring.dto.UpdateUser;
+import com.luidmidev.template.spring.dto.UserPage;
 import com.luidmidev.template.spring.models.User;
+import com.luidmidev.template.spring.services.SpreadsheetExportService;
+import com.luidmidev.template.spring.services.UserBulkService;
+import com.luidmidev.template.spring.services.UserImportService;
 import com.luidmidev.template.spring.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/users")
@@ -14,13 +31,88 @@ public class UserController {
 
     private final UserService userService;
 
-    UserController(UserService userService) {
+    private final UserImportService importService;
+
+    private final SpreadsheetExportService exportService;
+
+    private final UserBulkService bulkService;
+
+    UserController(UserService userService, UserImportService importService, SpreadsheetExportService exportService, UserBulkService bulkService) {
         this.userService = userService;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.bulkService = bulkService;
     }
 
+    /**
+     * Lista los usuarios paginados por cursor.
+     *
+     * @param after  Identificador del último usuario de la página anterior ({@code nextCursor}).
+     * @param size   Tamaño de la página.
+     * @param fields Campos adicionales a incluir; {@code authorities} incluye los roles de cada usuario.
+     * @return La página de usuarios y el cursor de la siguiente.
+     */
     @GetMapping
-    public ResponseEntity<Iterable<User>> findAll() {
-        return ResponseEntity.ok(userService.findAll());
+    public ResponseEntity<UserPage> findAll(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer size, @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(userService.findPage(after, size, includesAuthorities(fields)));
+    }
+
+    /**
+     * Exporta todos los usuarios en formato NDJSON, transmitiendo las filas a medida que se leen de la base de datos.
+     *
+     * @param fields Campos adicionales a incluir; {@code authorities} incluye los roles de cada usuario.
+     * @return Una respuesta que escribe los usuarios directamente en el cuerpo.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) List<String> fields) {
+        var includeAuthorities = includesAuthorities(fields);
+        StreamingResponseBody body = output -> userService.export(includeAuthorities, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Exporta todos los usuarios a una hoja de cálculo XLSX, escribiendo las filas a medida que se leen de la base
+     * de datos.
+     *
+     * @param columns Columnas a incluir: id, name, lastname, username, email, cedula, enabled, authorities. Por defecto, todas.
+     * @return Una respuesta que escribe el documento directamente en el cuerpo.
+     */
+    @GetMapping("/export/xlsx")
+    public ResponseEntity<StreamingResponseBody> exportXlsx(@RequestParam(required = false) List<String> columns) {
+        var selected = exportService.userColumns(columns);
+        StreamingResponseBody body = output -> exportService.exportUsers(selected, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("usuarios.xlsx").build().toString())
+                .body(body);
+    }
+
+    /**
+     * Inicia la importación masiva de usuarios desde un archivo XLSX o CSV. El archivo se procesa en segundo plano.
+     *
+     * @param file      Archivo con las columnas name, lastname, username, email, cedula y password.
+     * @param principal Administrador que solicita la importación.
+     * @return El estado inicial de la importación y su ubicación para consultar el avance.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobStatus> importUsers(@RequestParam MultipartFile file, @AuthenticationPrincipal User principal) {
+        var status = importService.start(file, principal);
+        return ResponseEntity.accepted()
+                .location(URI.create("/users/import/" + status.getId()))
+                .body(status);
+    }
+
+    /**
+     * Obtiene el avance de una importación de usuarios.
+     *
+     * @param jobId Identificador de la importación.
+     * @return Filas procesadas, importadas y rechazadas, con los errores de las rechazadas.
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobStatus> importStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(importService.status(jobId));
     }
 
     @GetMapping("/{id}")
@@ -34,4 +126,21 @@ public class UserController {
         userService.updateDetails(id, detailsUser);
         return ResponseEntity.ok("Usuario actualizado");
     }
+
+    /**
+     * Habilita, deshabilita o cambia los roles de varios usuarios a la vez.
+     *
+     * @param update    Identificadores o filtro de los usuarios y cambios a aplicar.
+     * @param principal Administrador que realiza la operación.
+     * @param request   Solicitud HTTP, de la que se obtiene la IP para la auditoría.
+     * @return Número de usuarios seleccionados y modificados.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkUpdateResult> bulkUpdate(@RequestBody BulkUserUpdate update, @AuthenticationPrincipal User principal, HttpServletRequest request) {
+        return ResponseEntity.ok(bulkService.update(update, principal, request.getRemoteAddr()));
+    }
+
+    private static boolean includesAuthorities(List<String> fields) {
+        return fields != null && fields.contains("authorities");
+    }
 }
@@ -0,0 +1,34 @@
+package com.luidmidev.template.spring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de un registro de auditoría de sesión con el nombre de usuario, sin cargar las entidades.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuditEntry {
+
+    private Long id;
+
+    private LocalDateTime datetime;
+
+    private Long userId;
+
+    private String username;
+
+    private String ip;
+
+    /**
+     * Código de la acción ({@link com.luidmidev.template.spring.models.AuditAction}), o {@code null} en los
+     * registros anteriores a los códigos y en el registro mapeado en memoria.
+     */
+    private String action;
+
+    private String description;
+}
@@ -0,0 +1,21 @@
+package com.luidmidev.template.spring.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Disponibilidad de un nombre de usuario y un email. Cada campo es {@code null} cuando no se consultó.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(Include.NON_NULL)
+public class Availability {
+
+    private Boolean username;
+
+    private Boolean email;
+}
@@ -0,0 +1,18 @@
+package com.luidmidev.template.spring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una actualización masiva de usuarios.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkUpdateResult {
+
+    private int matched;
+
+    private int updated;
+}
@@ -0,0 +1,64 @@
+package com.luidmidev.template.spring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Cambio aplicado a varios usuarios a la vez. Los usuarios se indican con una lista de identificadores o con un
+ * filtro; si se envían ambos, se aplican los dos.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkUserUpdate {
+
+    /**
+     * Identificadores de los usuarios a modificar.
+     */
+    private List<Long> ids;
+
+    private Filter filter;
+
+    /**
+     * Nuevo estado de los usuarios, o {@code null} para no modificarlo.
+     */
+    private Boolean enabled;
+
+    /**
+     * Roles que reemplazan los actuales, o {@code null} para no modificarlos.
+     */
+    private List<String> authorities;
+
+    /**
+     * Si se debe notificar a los usuarios por email.
+     */
+    private boolean notify = true;
+
+    /**
+     * Filtro de usuarios; los criterios enviados se combinan entre sí.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Filter {
+
+        private Boolean enabled;
+
+        /**
+         * Nombre de un rol que deben tener los usuarios.
+         */
+        private String authority;
+
+        /**
+         * Texto contenido en el nombre de usuario o el email.
+         */
+        private String search;
+
+        public boolean isEmpty() {
+            return enabled == null && (authority == null || authority.isBlank()) && (search == null || search.isBlank());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.luidmidev.template.spring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Estado de una importación masiva de usuarios.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportJobStatus {
+
+    private String id;
+
+    private String filename;
+
+    private State state;
+
+    /**
+     * Filas de datos leídas, sin contar la cabecera.
+     */
+    private int processed;
+
+    private int imported;
+
+    private int rejected;
+
+    /**
+     * Errores de las filas rechazadas, con su número de fila. Solo se conservan los primeros.
+     */
+    private List<String> errors;
+
+    /**
+     * Motivo por el que falló la importación completa, si falló.
+     */
+    private String message;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+
+    public enum State {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,21 @@
+package com.luidmidev.template.spring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de usuarios paginada por cursor. Para obtener la siguiente página se envía {@code nextCursor}
+ * como parámetro {@code after}; es {@code null} cuando no hay más resultados.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPage {
+
+    private List<UserSummary> items;
+
+    private Long nextCursor;
+}
@@ -0,0 +1,38 @@
+package com.luidmidev.template.spring.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Proyección de un usuario para listados, sin cargar la entidad completa. Los roles solo se incluyen
+ * cuando se solicitan explícitamente.
+ */
+@Data
+@NoArgsConstructor
+public class UserSummary {
+
+    private Long id;
+    private String name;
+    private String lastname;
+    private String username;
+    private String email;
+    private String cedula;
+    private boolean enabled;
+
+    @JsonInclude(Include.NON_NULL)
+    private List<String> authorities;
+
+    public UserSummary(Long id, String name, String lastname, String username, String email, String cedula, boolean enabled) {
+        this.id = id;
+        this.name = name;
+        this.lastname = lastname;
+        this.username = username;
+        this.email = email;
+        this.cedula = cedula;
+        this.enabled = enabled;
+    }
+}
@@ -4,6 +4,7 @@ import com.waipersoft.questionnaires.exception.InvalidAnswersException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.security.core.AuthenticationException;
@@ -68,6 +69,13 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(ex.getHttpStatusCode()).body(ex.getErrorResponse());
     }
 
+    @ExceptionHandler(ServerBusyException.class)
+    public ResponseEntity<ErrorResponse> handleServerBusyException(ServerBusyException ex) {
+        return ResponseEntity.status(ex.getHttpStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getErrorResponse());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<List<ErrorResponse>> handleValidationException(MethodArgumentNotValidException ex) {
 
@@ -0,0 +1,25 @@
+package com.luidmidev.template.spring.exceptions;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Excepción lanzada cuando un recurso limitado del servidor está saturado y la solicitud debe reintentarse más tarde.
+ * Se responde con el código 503 y el encabezado {@code Retry-After}.
+ */
+@Getter
+public class ServerBusyException extends ClientException {
+
+    private final int retryAfterSeconds;
+
+    /**
+     * Crear una excepción de servidor ocupado a partir de un mensaje y el tiempo sugerido de reintento
+     *
+     * @param message           Mensaje de error
+     * @param retryAfterSeconds Segundos tras los cuales el cliente puede reintentar
+     */
+    public ServerBusyException(String message, int retryAfterSeconds) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
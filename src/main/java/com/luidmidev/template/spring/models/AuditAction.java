@@ -0,0 +1,15 @@
+package com.luidmidev.template.spring.models;
+
+/**
+ * Código estable de las acciones auditadas. Se guarda por nombre en {@code session_audit.action} y agrupa el
+ * resumen diario; la descripción de cada registro es texto libre y puede variar entre registros de la misma acción.
+ */
+public enum AuditAction {
+    LOGIN,
+    PASSWORD_RESET_REQUEST,
+    PASSWORD_RESET,
+    USER_REGISTER,
+    USER_UPDATE,
+    USER_BULK_UPDATE,
+    USER_IMPORT
+}
@@ -0,0 +1,62 @@
+package com.luidmidev.template.spring.models;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Archivo comprimido (NDJSON con gzip) con los registros de auditoría de un día que se eliminaron de
+ * {@code session_audit} por la política de retención.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "audit_archive")
+public class AuditArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private LocalDate day;
+
+    /**
+     * Dónde se guardó el archivo: {@code disk} o {@code store}.
+     */
+    @Column(nullable = false)
+    private String storage;
+
+    /**
+     * Ruta del archivo en disco o identificador en el almacén de archivos.
+     */
+    @Column(nullable = false)
+    private String location;
+
+    private long rowCount;
+
+    private long sizeBytes;
+
+    /**
+     * Identificador del último registro incluido. Los registros del día con un identificador mayor llegaron después
+     * de archivarlo y se agregan al archivo antes de eliminarlos; es {@code null} en los archivos anteriores a la
+     * columna.
+     */
+    private Long lastId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void onBeforeConvert() {
+        setCreatedAt(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,44 @@
+package com.luidmidev.template.spring.models;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Número de acciones de auditoría de un usuario en un día, conservado después de eliminar los registros
+ * individuales.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "audit_daily_rollup", indexes = {
+        @Index(name = "idx_audit_daily_rollup_user_day", columnList = "user_id, day")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_audit_daily_rollup", columnNames = {"day", "user_id", "action"})
+})
+public class AuditDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Código de la acción auditada ({@link AuditAction}), o su descripción en los registros sin código.
+     */
+    private String action;
+
+    private long count;
+}
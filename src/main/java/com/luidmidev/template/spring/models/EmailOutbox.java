@@ -0,0 +1,73 @@
+package com.luidmidev.template.spring.models;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Email pendiente de envío, escrito en la misma transacción que la operación que lo genera.
+ * <p>
+ * Los emails enviados se eliminan; los que agotan los reintentos quedan con estado {@link Status#FAILED} y sin
+ * contenido para su revisión, hasta que se purgan.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at, id")
+})
+public class EmailOutbox {
+
+    public enum Status {
+        PENDING,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String body;
+
+    /**
+     * Referencia a los secretos del contenido, que solo la instancia {@link #node} guarda en memoria.
+     */
+    @Column(length = 36)
+    private String secretRef;
+
+    @Column(length = 36)
+    private String node;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    private int attempts;
+
+    /**
+     * Fecha a partir de la cual se puede intentar el envío; mientras un envío está en curso se usa como plazo de
+     * reserva para que otra instancia no lo tome.
+     */
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -19,13 +19,22 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "session_audit")
+@Table(name = "session_audit", indexes = {
+        @Index(name = "idx_session_audit_user_datetime", columnList = "user_id, datetime, id"),
+        @Index(name = "idx_session_audit_datetime", columnList = "datetime, id")
+})
 public class SessionAudit {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Código de la acción ({@link AuditAction}).
+     */
+    @Column(length = 64)
+    private String action;
+
     private String description;
 
     private String ip;
@@ -33,16 +42,19 @@ public class SessionAudit {
     private LocalDateTime datetime;
 
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    /**
+     * Completa la IP y la fecha cuando no se asignaron al crear el registro.
+     */
     @PrePersist
     public void prePersist() {
 
-        var request = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        assert request != null;
-        setIp(request.getRequest().getRemoteAddr());
-        setDatetime(LocalDateTime.now());
+        if (ip == null && RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request) {
+            setIp(request.getRequest().getRemoteAddr());
+        }
+        if (datetime == null) setDatetime(LocalDateTime.now());
     }
 }
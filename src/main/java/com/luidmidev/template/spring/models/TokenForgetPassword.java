@@ -15,13 +15,16 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "token_forget_password")
+@Table(name = "token_forget_password", indexes = @Index(name = "idx_token_forget_password_created_at", columnList = "created_at"))
 public class TokenForgetPassword {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * HMAC del código de recuperación; el código no se almacena.
+     */
     @Column(unique = true, nullable = false)
     private String token;
 
@@ -31,12 +34,6 @@ public class TokenForgetPassword {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
-    public boolean isExpired() {
-        var now = LocalDateTime.now();
-        return now.isAfter(this.createdAt.plusMinutes(30));
-    }
-
-
     @PrePersist
     public void onBeforeConvert() {
         setCreatedAt(LocalDateTime.now());
@@ -9,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -55,12 +56,26 @@ public class User implements UserDetails {
 
     private boolean enabled = true;
 
+    /**
+     * Versión de las credenciales; los tokens autocontenidos emitidos con una versión menor se rechazan. Solo la
+     * modifica {@code CredentialVersions} con un incremento atómico, por lo que JPA no la escribe: al guardar la
+     * entidad sobrescribiría el incremento con el valor leído.
+     */
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "int not null default 0")
+    private int credentialVersion;
+
 
     @JsonIgnore
     @OneToMany(mappedBy = "user", fetch = FetchType.LAZY)
     private transient List<SessionAudit> sessionAudits;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    /**
+     * Roles del usuario. Se cargan de forma diferida; las consultas que los necesitan declaran un grafo de entidad
+     * en {@code UserRepository}, y el resto los carga por lotes para evitar una consulta por usuario.
+     */
+    @BatchSize(size = 50)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "users_roles",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -0,0 +1,20 @@
+package com.luidmidev.template.spring.repositories;
+
+import com.luidmidev.template.spring.models.AuditArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+
+@Repository
+public interface AuditArchiveRepository extends JpaRepository<AuditArchive, Long> {
+
+    boolean existsByDay(LocalDate day);
+
+    Optional<AuditArchive> findByDay(LocalDate day);
+
+    List<AuditArchive> findAllByDayBetweenOrderByDay(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,163 @@
+package com.luidmidev.template.spring.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operaciones JDBC sobre la bandeja de salida de emails ({@code email_outbox}).
+ * <p>
+ * Varias instancias pueden enviar a la vez: cada una reserva un lote con {@code FOR UPDATE SKIP LOCKED} y adelanta
+ * su {@code next_attempt_at} hasta el fin de la reserva, de modo que las demás lo omiten aunque el envío tarde.
+ * Las filas con contenido secreto ({@code secret_ref}) solo las reserva la instancia indicada en {@code node}, que es
+ * la única que guarda los secretos.
+ */
+@Repository
+public class EmailOutboxJdbcRepository {
+
+    private static final String INSERT = "insert into email_outbox (recipient, subject, body, secret_ref, node, status, attempts, next_attempt_at, created_at) values (?, ?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    private static final String SELECT_DUE = """
+            select id, recipient, subject, body, secret_ref, attempts, created_at
+            from email_outbox
+            where status = 'PENDING' and next_attempt_at <= ? and (node is null or node = ?)
+            order by next_attempt_at, id
+            limit ?
+            for update skip locked""";
+
+    private static final String LEASE = "update email_outbox set next_attempt_at = :until where id in (:ids)";
+
+    private static final String DELETE = "delete from email_outbox where id in (:ids)";
+
+    private static final String RESCHEDULE = "update email_outbox set attempts = ?, next_attempt_at = ?, last_error = ? where id = ?";
+
+    private static final String FAIL = "update email_outbox set attempts = ?, next_attempt_at = ?, status = 'FAILED', last_error = ?, body = '', secret_ref = null where id = ?";
+
+    private static final String PURGE = """
+            delete from email_outbox
+            where (status = 'FAILED' and next_attempt_at < ?)
+               or (status = 'PENDING' and node is not null and node <> ? and created_at < ?)""";
+
+    private static final String SELECT_PENDING = "select count(*) as pending, min(created_at) as oldest from email_outbox where status = 'PENDING'";
+
+    private static final String COUNT_FAILED = "select count(*) from email_outbox where status = 'FAILED'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    EmailOutboxJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Inserta emails pendientes con una sentencia por lotes, dentro de la transacción en curso.
+     */
+    public void insertAll(List<NewEmail> emails) {
+        var now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT, emails, emails.size(), (ps, email) -> {
+            ps.setString(1, email.recipient());
+            ps.setString(2, email.subject());
+            ps.setString(3, email.body());
+            ps.setString(4, email.secretRef());
+            ps.setString(5, email.node());
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+        });
+    }
+
+    /**
+     * Reserva hasta {@code limit} emails pendientes cuyo intento ya corresponde.
+     *
+     * @param node  Instancia que reserva; además de los emails sin secretos solo toma los suyos.
+     * @param until Fin de la reserva; si el envío no termina antes, los emails vuelven a estar disponibles.
+     * @return Los emails reservados, del más antiguo al más reciente.
+     */
+    @Transactional
+    public List<PendingEmail> claim(String node, int limit, LocalDateTime until) {
+        var emails = jdbcTemplate.query(SELECT_DUE, (rs, rowNum) -> new PendingEmail(
+                rs.getLong("id"),
+                rs.getString("recipient"),
+                rs.getString("subject"),
+                rs.getString("body"),
+                rs.getString("secret_ref"),
+                rs.getInt("attempts"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        ), Timestamp.valueOf(LocalDateTime.now()), node, limit);
+
+        if (!emails.isEmpty()) {
+            namedJdbcTemplate.update(LEASE, Map.of("until", Timestamp.valueOf(until), "ids", emails.stream().map(PendingEmail::id).toList()));
+        }
+        return emails;
+    }
+
+    /**
+     * Elimina los emails enviados.
+     */
+    public void deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) return;
+        namedJdbcTemplate.update(DELETE, Map.of("ids", ids));
+    }
+
+    /**
+     * Registra un intento fallido y programa el siguiente.
+     */
+    public void reschedule(long id, int attempts, LocalDateTime nextAttemptAt, String error) {
+        jdbcTemplate.update(RESCHEDULE, attempts, Timestamp.valueOf(nextAttemptAt), error, id);
+    }
+
+    /**
+     * Marca un email como fallido definitivamente y borra su contenido; solo se conservan el destinatario, el asunto
+     * y el error para su revisión.
+     */
+    public void fail(long id, int attempts, String error) {
+        jdbcTemplate.update(FAIL, attempts, Timestamp.valueOf(LocalDateTime.now()), error, id);
+    }
+
+    /**
+     * Elimina los emails fallidos antes de {@code failedBefore} y los emails con secretos de otras instancias creados
+     * antes de {@code orphanedBefore}, cuyos secretos ya vencieron o se perdieron con la instancia.
+     *
+     * @return Número de emails eliminados.
+     */
+    public int purge(LocalDateTime failedBefore, String node, LocalDateTime orphanedBefore) {
+        return jdbcTemplate.update(PURGE, Timestamp.valueOf(failedBefore), node, Timestamp.valueOf(orphanedBefore));
+    }
+
+    /**
+     * Obtiene el número de emails pendientes y la fecha de creación del más antiguo.
+     */
+    public Backlog backlog() {
+        var backlog = jdbcTemplate.queryForObject(SELECT_PENDING, (rs, rowNum) -> {
+            var oldest = rs.getTimestamp("oldest");
+            return new Backlog(rs.getLong("pending"), oldest == null ? null : oldest.toLocalDateTime(), 0);
+        });
+        var failed = jdbcTemplate.queryForObject(COUNT_FAILED, Long.class);
+        return new Backlog(backlog.pending(), backlog.oldest(), failed == null ? 0 : failed);
+    }
+
+    /**
+     * @param secretRef Referencia a los secretos del contenido, o {@code null} si no tiene.
+     * @param node      Instancia que guarda los secretos, o {@code null} si no tiene.
+     */
+    public record NewEmail(String recipient, String subject, String body, String secretRef, String node) {
+
+        public NewEmail(String recipient, String subject, String body) {
+            this(recipient, subject, body, null, null);
+        }
+    }
+
+    public record PendingEmail(long id, String recipient, String subject, String body, String secretRef, int attempts, LocalDateTime createdAt) {
+    }
+
+    public record Backlog(long pending, LocalDateTime oldest, long failed) {
+    }
+}
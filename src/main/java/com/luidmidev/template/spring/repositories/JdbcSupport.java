@@ -0,0 +1,58 @@
+package com.luidmidev.template.spring.repositories;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Utilidades compartidas por los repositorios JDBC.
+ */
+@Log4j2
+final class JdbcSupport {
+
+    /**
+     * Filas por viaje de red de las consultas recorridas con cursor en los controladores distintos de MySQL
+     * Connector/J.
+     */
+    private static final int STREAMING_FETCH_SIZE = 1000;
+
+    private JdbcSupport() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Escapa los comodines de {@code LIKE} ({@code %}, {@code _}) y el carácter de escape ({@code \}) de un texto
+     * ingresado por el usuario, para buscarlo de forma literal.
+     */
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Crea un {@link JdbcTemplate} para consultas que se recorren fila a fila sin cargar el resultado completo.
+     * <p>
+     * MySQL Connector/J carga todo el resultado en memoria salvo que el tamaño de lectura sea
+     * {@link Integer#MIN_VALUE}, con el que transmite las filas una a una. Ese valor es exclusivo de Connector/J y
+     * otros controladores lo rechazan como tamaño inválido, por lo que solo se usa si el origen de datos es de
+     * Connector/J; con los demás se usa un tamaño de lectura positivo.
+     */
+    static JdbcTemplate streamingJdbcTemplate(DataSource dataSource) {
+        var template = new JdbcTemplate(dataSource);
+        template.setFetchSize(isMySqlConnectorJ(dataSource) ? Integer.MIN_VALUE : STREAMING_FETCH_SIZE);
+        return template;
+    }
+
+    private static boolean isMySqlConnectorJ(DataSource dataSource) {
+        try {
+            String driver = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDriverName);
+            return driver != null && driver.startsWith("MySQL Connector");
+        } catch (MetaDataAccessException e) {
+            log.warn("No se pudo identificar el controlador JDBC, las consultas por cursor usarán un tamaño de lectura de {}: {}", STREAMING_FETCH_SIZE, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.luidmidev.template.spring.repositories;
+
+import com.luidmidev.template.spring.dto.AuditEntry;
+import com.luidmidev.template.spring.models.AuditAction;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Operaciones JDBC sobre la auditoría de sesiones: inserciones por lotes y consultas que se recorren con un cursor
+ * de solo avance, sin cargar el resultado completo en memoria.
+ */
+@Repository
+public class SessionAuditJdbcRepository {
+
+    private static final String SELECT_RANGE = """
+            select a.id, a.datetime, a.user_id, u.username, a.ip, a.action, a.description
+            from session_audit a
+            join users u on u.id = a.user_id
+            where a.datetime >= ? and a.datetime < ? and a.id > ? and a.id <= ?
+            order by a.datetime, a.id""";
+
+    private static final String INSERT = "insert into session_audit (action, description, ip, datetime, user_id) values (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_PAGE = """
+            select a.id, a.datetime, a.user_id, u.username, a.ip, a.action, a.description
+            from session_audit a
+            join users u on u.id = a.user_id
+            where a.datetime is not null""";
+
+    private static final String SELECT_OLDEST = "select min(datetime) from session_audit";
+
+    private static final String SELECT_MAX_ID = "select max(id) from session_audit where datetime >= ? and datetime < ? and id > ?";
+
+    private static final String INSERT_ROLLUP = """
+            insert into audit_daily_rollup (day, user_id, action, count)
+            select ?, user_id, coalesce(action, description), count(*)
+            from session_audit
+            where datetime >= ? and datetime < ? and id > ? and id <= ?
+            group by user_id, coalesce(action, description)
+            on duplicate key update count = count + values(count)""";
+
+    private static final String DELETE_RANGE = "delete from session_audit where datetime >= ? and datetime < ? and id <= ? limit ?";
+
+    private static final String GET_LOCK = "select get_lock(?, 0)";
+
+    private static final String RELEASE_LOCK = "select release_lock(?)";
+
+    private static final RowMapper<AuditEntry> ENTRY_MAPPER = (rs, rowNum) -> {
+        var datetime = rs.getTimestamp("datetime");
+        return new AuditEntry(rs.getLong("id"), datetime == null ? null : datetime.toLocalDateTime(), rs.getLong("user_id"), rs.getString("username"), rs.getString("ip"), rs.getString("action"), rs.getString("description"));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    SessionAuditJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.streamingJdbcTemplate = JdbcSupport.streamingJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Recorre los registros de auditoría de un rango de fechas en orden cronológico.
+     *
+     * @param from     Inicio del rango, inclusivo.
+     * @param to       Fin del rango, exclusivo.
+     * @param consumer Función que recibe cada registro a medida que se lee.
+     */
+    public void streamRange(LocalDateTime from, LocalDateTime to, Consumer<AuditEntry> consumer) {
+        streamRange(from, to, 0L, Long.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Recorre los registros de auditoría de un rango de fechas y de identificadores en orden cronológico.
+     *
+     * @param from     Inicio del rango, inclusivo.
+     * @param to       Fin del rango, exclusivo.
+     * @param afterId  Solo se recorren los registros con un identificador mayor.
+     * @param lastId   Solo se recorren los registros con un identificador menor o igual.
+     * @param consumer Función que recibe cada registro a medida que se lee.
+     */
+    public void streamRange(LocalDateTime from, LocalDateTime to, long afterId, long lastId, Consumer<AuditEntry> consumer) {
+        streamingJdbcTemplate.query(SELECT_RANGE, rs -> {
+            consumer.accept(ENTRY_MAPPER.mapRow(rs, 0));
+        }, Timestamp.valueOf(from), Timestamp.valueOf(to), afterId, lastId);
+    }
+
+    /**
+     * Obtiene el mayor identificador de los registros de un rango de fechas posteriores al indicado, o {@code null}
+     * si no hay ninguno.
+     */
+    public Long findMaxId(LocalDateTime from, LocalDateTime to, long afterId) {
+        return jdbcTemplate.queryForObject(SELECT_MAX_ID, Long.class, Timestamp.valueOf(from), Timestamp.valueOf(to), afterId);
+    }
+
+    /**
+     * Inserta registros de auditoría con una sentencia por lotes.
+     *
+     * @param entries Registros a insertar; se usan la acción, descripción, IP, fecha e identificador de usuario.
+     */
+    public void insertAll(List<AuditEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, entry.getAction());
+            ps.setString(2, entry.getDescription());
+            ps.setString(3, entry.getIp());
+            ps.setTimestamp(4, Timestamp.valueOf(entry.getDatetime()));
+            ps.setLong(5, entry.getUserId());
+        });
+    }
+
+    /**
+     * Obtiene una página de registros de auditoría del más reciente al más antiguo, continuando después del
+     * registro indicado. Las condiciones sobre el usuario y la fecha se resuelven con los índices
+     * {@code (user_id, datetime, id)} y {@code (datetime, id)}, por lo que cualquier página cuesta lo mismo que la
+     * primera. Los registros sin fecha (anteriores a que se asignara siempre) no tienen posición en ese orden y no se
+     * incluyen; {@code db/session_audit_partitioning.sql} les asigna una fecha.
+     *
+     * @param userId         Identificador del usuario, o {@code null} para todos.
+     * @param from           Inicio del rango, inclusivo, o {@code null}.
+     * @param to             Fin del rango, exclusivo, o {@code null}.
+     * @param type           Acción de los registros, o {@code null} para todas. Los registros anteriores a los códigos
+     *                       de acción no tienen acción y solo se obtienen sin este filtro.
+     * @param afterDatetime  Fecha del último registro de la página anterior, o {@code null} para la primera página.
+     * @param afterId        Identificador del último registro de la página anterior.
+     * @param limit          Tamaño de la página.
+     * @return Los registros de la página.
+     */
+    public List<AuditEntry> findPage(Long userId, LocalDateTime from, LocalDateTime to, AuditAction type, LocalDateTime afterDatetime, Long afterId, int limit) {
+        var sql = new StringBuilder(SELECT_PAGE);
+        var params = new HashMap<String, Object>();
+
+        if (userId != null) {
+            sql.append(" and a.user_id = :userId");
+            params.put("userId", userId);
+        }
+        if (from != null) {
+            sql.append(" and a.datetime >= :from");
+            params.put("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" and a.datetime < :to");
+            params.put("to", Timestamp.valueOf(to));
+        }
+        if (type != null) {
+            sql.append(" and a.action = :type");
+            params.put("type", type.name());
+        }
+        if (afterDatetime != null) {
+            sql.append(" and (a.datetime < :afterDatetime or (a.datetime = :afterDatetime and a.id < :afterId))");
+            params.put("afterDatetime", Timestamp.valueOf(afterDatetime));
+            params.put("afterId", afterId);
+        }
+
+        sql.append(" order by a.datetime desc, a.id desc limit :limit");
+        params.put("limit", limit);
+
+        return namedJdbcTemplate.query(sql.toString(), params, ENTRY_MAPPER);
+    }
+
+    /**
+     * Obtiene la fecha del registro de auditoría más antiguo, o {@code null} si no hay registros.
+     */
+    public LocalDateTime findOldestDatetime() {
+        var oldest = jdbcTemplate.queryForObject(SELECT_OLDEST, Timestamp.class);
+        return oldest == null ? null : oldest.toLocalDateTime();
+    }
+
+    /**
+     * Suma al resumen diario por usuario y código de acción los registros de un día con identificador en
+     * {@code (afterId, lastId]}. Los registros sin código se agrupan por su descripción. Debe ejecutarse en la misma
+     * transacción que registra el archivo, para no sumar dos veces los mismos registros.
+     *
+     * @param day     Día a resumir.
+     * @param afterId Identificador del último registro ya resumido, o 0.
+     * @param lastId  Identificador del último registro a resumir.
+     */
+    public void rollupDay(LocalDate day, long afterId, long lastId) {
+        jdbcTemplate.update(INSERT_ROLLUP, day, Timestamp.valueOf(day.atStartOfDay()), Timestamp.valueOf(day.plusDays(1).atStartOfDay()), afterId, lastId);
+    }
+
+    /**
+     * Elimina como máximo el número indicado de registros de un rango de fechas. Cada llamada es una sentencia
+     * corta que mantiene los bloqueos poco tiempo.
+     *
+     * @param from   Inicio del rango, inclusivo.
+     * @param to     Fin del rango, exclusivo.
+     * @param lastId Solo se eliminan los registros con un identificador menor o igual (los ya archivados).
+     * @param limit  Máximo de registros a eliminar.
+     * @return Número de registros eliminados.
+     */
+    public int deleteRange(LocalDateTime from, LocalDateTime to, long lastId, int limit) {
+        return jdbcTemplate.update(DELETE_RANGE, Timestamp.valueOf(from), Timestamp.valueOf(to), lastId, limit);
+    }
+
+    /**
+     * Ejecuta una tarea mientras se mantiene un bloqueo con nombre de MySQL ({@code GET_LOCK}), de modo que solo
+     * una instancia de la aplicación la ejecute a la vez. El bloqueo pertenece a la conexión, por lo que se libera
+     * también si la instancia se detiene.
+     *
+     * @param name Nombre del bloqueo.
+     * @param task Tarea a ejecutar.
+     * @return {@code false} si otra instancia tiene el bloqueo y la tarea no se ejecutó.
+     */
+    public boolean runLocked(String name, Runnable task) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (var statement = connection.prepareStatement(GET_LOCK)) {
+                statement.setString(1, name);
+                try (var rs = statement.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1) return false;
+                }
+            }
+            try {
+                task.run();
+            } finally {
+                try (var statement = connection.prepareStatement(RELEASE_LOCK)) {
+                    statement.setString(1, name);
+                    statement.execute();
+                }
+            }
+            return true;
+        }));
+    }
+}
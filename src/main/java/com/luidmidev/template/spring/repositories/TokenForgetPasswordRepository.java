@@ -2,17 +2,32 @@ package com.luidmidev.template.spring.repositories;
 
 import com.luidmidev.template.spring.models.TokenForgetPassword;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface TokenForgetPasswordRepository extends JpaRepository<TokenForgetPassword, String> {
 
-    Optional<TokenForgetPassword> findByToken(String token);
+    boolean existsByToken(String token);
 
-    default void deleteExpiredToken() {
-        var tokens = findAll();
-        var expired = tokens.stream().filter(TokenForgetPassword::isExpired).toList();
-        deleteAll(expired);
-    }
-}
+    /**
+     * Busca un código de recuperación vigente; un código creado antes de {@code notBefore} se considera expirado y no
+     * se devuelve.
+     */
+    @Query("select t from TokenForgetPassword t where t.token = :token and t.createdAt >= :notBefore")
+    Optional<TokenForgetPassword> findValidByToken(@Param("token") String token, @Param("notBefore") LocalDateTime notBefore);
 
+    /**
+     * Elimina, usando el índice de {@code created_at}, hasta {@code limit} códigos creados antes de la fecha indicada.
+     *
+     * @return Número de códigos eliminados; si es igual a {@code limit} pueden quedar más.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM token_forget_password WHERE created_at < :before LIMIT :limit", nativeQuery = true)
+    int deleteCreatedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,255 @@
+package com.luidmidev.template.spring.repositories;
+
+import com.luidmidev.template.spring.dto.BulkUserUpdate;
+import com.luidmidev.template.spring.dto.UserSummary;
+import com.luidmidev.template.spring.models.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Operaciones JDBC sobre usuarios que no necesitan entidades: consultas que se recorren con un cursor de solo
+ * avance, sin cargar el resultado completo en memoria, e inserciones por lotes.
+ */
+@Repository
+public class UserJdbcRepository {
+
+    private static final String SELECT_USERS = "select u.id, u.name, u.lastname, u.username, u.email, u.cedula, u.enabled from users u order by u.id";
+
+    private static final String SELECT_USERS_WITH_AUTHORITIES = """
+            select u.id, u.name, u.lastname, u.username, u.email, u.cedula, u.enabled, r.name as authority
+            from users u
+            left join users_roles ur on ur.user_id = u.id
+            left join roles r on r.id = ur.authority_id
+            order by u.id""";
+
+    private static final String SELECT_IDENTITIES = "select u.username, u.email from users u";
+
+    private static final String INSERT_USER = "insert into users (name, lastname, username, email, cedula, password, enabled) values (?, ?, ?, ?, ?, ?, true)";
+
+    private static final String INSERT_USER_ROLES = "insert into users_roles (user_id, authority_id) select u.id, :authorityId from users u where u.username in (:usernames)";
+
+    private static final String UPDATE_ENABLED = "update users set enabled = :enabled where id in (:ids) and enabled <> :enabled";
+
+    private static final String DELETE_USERS_ROLES = "delete from users_roles where user_id in (:ids)";
+
+    private static final String INSERT_USERS_ROLES = "insert into users_roles (user_id, authority_id) select u.id, r.id from users u cross join roles r where u.id in (:ids) and r.name in (:authorities)";
+
+    private static final String SELECT_ENABLED_CHANGES = "select u.id from users u where u.id in (:ids) and u.enabled <> :enabled";
+
+    private static final String SELECT_AUTHORITIES = "select ur.user_id, r.name from users_roles ur join roles r on r.id = ur.authority_id where ur.user_id in (:ids)";
+
+    private static final String SELECT_CREDENTIAL_VERSION = "select u.credential_version from users u where u.id = :id";
+
+    private static final String INCREMENT_CREDENTIAL_VERSIONS = "update users set credential_version = credential_version + 1 where id in (:ids)";
+
+    /**
+     * Máximo de identificadores por sentencia, para no superar el límite de parámetros ni el tamaño de paquete.
+     */
+    private static final int IDS_PER_STATEMENT = 1000;
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    UserJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = JdbcSupport.streamingJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Recorre todos los usuarios en orden de identificador.
+     *
+     * @param includeAuthorities Si se deben incluir los nombres de los roles de cada usuario.
+     * @param consumer           Función que recibe cada usuario a medida que se lee.
+     */
+    public void streamSummaries(boolean includeAuthorities, Consumer<UserSummary> consumer) {
+
+        if (!includeAuthorities) {
+            streamingJdbcTemplate.query(SELECT_USERS, rs -> {
+                consumer.accept(new UserSummary(rs.getLong("id"), rs.getString("name"), rs.getString("lastname"), rs.getString("username"), rs.getString("email"), rs.getString("cedula"), rs.getBoolean("enabled")));
+            });
+            return;
+        }
+
+        // Las filas llegan agrupadas por usuario; se emite cada usuario al cambiar de identificador
+        var current = new UserSummary[1];
+        streamingJdbcTemplate.query(SELECT_USERS_WITH_AUTHORITIES, rs -> {
+            var id = rs.getLong("id");
+            if (current[0] == null || !current[0].getId().equals(id)) {
+                if (current[0] != null) consumer.accept(current[0]);
+                current[0] = new UserSummary(id, rs.getString("name"), rs.getString("lastname"), rs.getString("username"), rs.getString("email"), rs.getString("cedula"), rs.getBoolean("enabled"));
+                current[0].setAuthorities(new ArrayList<>());
+            }
+            var authority = rs.getString("authority");
+            if (authority != null) current[0].getAuthorities().add(authority);
+        });
+        if (current[0] != null) consumer.accept(current[0]);
+    }
+
+    /**
+     * Recorre el nombre de usuario y el email de todos los usuarios.
+     *
+     * @param consumer Función que recibe el nombre de usuario y el email de cada usuario.
+     */
+    public void streamIdentities(BiConsumer<String, String> consumer) {
+        streamingJdbcTemplate.query(SELECT_IDENTITIES, rs -> {
+            consumer.accept(rs.getString("username"), rs.getString("email"));
+        });
+    }
+
+    /**
+     * Inserta usuarios habilitados con sentencias por lotes y les asigna un rol, sin cargar entidades.
+     * Debe ejecutarse dentro de una transacción para que los usuarios y sus roles se guarden juntos.
+     *
+     * @param users       Usuarios a insertar, con la contraseña ya codificada.
+     * @param authorityId Identificador del rol asignado a todos los usuarios.
+     */
+    public void insertAll(List<User> users, Long authorityId) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_USER, users, users.size(), (ps, user) -> {
+            ps.setString(1, user.getName());
+            ps.setString(2, user.getLastname());
+            ps.setString(3, user.getUsername());
+            ps.setString(4, user.getEmail());
+            ps.setString(5, user.getCedula());
+            ps.setString(6, user.getPassword());
+        });
+
+        var usernames = users.stream().map(User::getUsername).toList();
+        jdbcTemplate.update(INSERT_USER_ROLES, Map.of("authorityId", authorityId, "usernames", usernames));
+    }
+
+    /**
+     * Obtiene el identificador, nombre de usuario y email de los usuarios indicados por identificador o filtro.
+     *
+     * @param ids    Identificadores de los usuarios, o {@code null} o vacío para no filtrar por identificador.
+     * @param filter Filtro de usuarios, o {@code null}.
+     * @param limit  Máximo de usuarios a obtener.
+     * @return Los usuarios encontrados, en orden de identificador.
+     */
+    public List<UserTarget> findTargets(List<Long> ids, BulkUserUpdate.Filter filter, int limit) {
+        var sql = new StringBuilder("select u.id, u.username, u.email from users u where 1 = 1");
+        var params = new HashMap<String, Object>();
+
+        if (ids != null && !ids.isEmpty()) {
+            sql.append(" and u.id in (:ids)");
+            params.put("ids", ids);
+        }
+
+        if (filter != null) {
+            if (filter.getEnabled() != null) {
+                sql.append(" and u.enabled = :enabled");
+                params.put("enabled", filter.getEnabled());
+            }
+            if (filter.getAuthority() != null && !filter.getAuthority().isBlank()) {
+                sql.append(" and exists (select 1 from users_roles ur join roles r on r.id = ur.authority_id where ur.user_id = u.id and r.name = :authority)");
+                params.put("authority", filter.getAuthority());
+            }
+            if (filter.getSearch() != null && !filter.getSearch().isBlank()) {
+                sql.append(" and (u.username like :search or u.email like :search)");
+                params.put("search", "%" + JdbcSupport.escapeLike(filter.getSearch().trim()) + "%");
+            }
+        }
+
+        sql.append(" order by u.id limit :limit");
+        params.put("limit", limit);
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> new UserTarget(rs.getLong("id"), rs.getString("username"), rs.getString("email")));
+    }
+
+    /**
+     * Obtiene, de los usuarios indicados, los que no tienen el estado indicado.
+     */
+    public List<Long> findEnabledChanges(List<Long> ids, boolean enabled) {
+        var changed = new ArrayList<Long>();
+        for (var chunk : chunks(ids)) {
+            changed.addAll(jdbcTemplate.queryForList(SELECT_ENABLED_CHANGES, Map.of("ids", chunk, "enabled", enabled), Long.class));
+        }
+        return changed;
+    }
+
+    /**
+     * Obtiene, de los usuarios indicados, los que no tienen exactamente los roles indicados.
+     */
+    public List<Long> findAuthorityChanges(List<Long> ids, Collection<String> authorities) {
+        var expected = Set.copyOf(authorities);
+        var current = new HashMap<Long, Set<String>>();
+        for (var chunk : chunks(ids)) {
+            jdbcTemplate.query(SELECT_AUTHORITIES, Map.of("ids", chunk), rs -> {
+                current.computeIfAbsent(rs.getLong("user_id"), id -> new HashSet<>()).add(rs.getString("name"));
+            });
+        }
+        return ids.stream()
+                .filter(id -> !current.getOrDefault(id, Set.of()).equals(expected))
+                .toList();
+    }
+
+    /**
+     * Cambia el estado de los usuarios indicados con sentencias {@code UPDATE} por conjuntos de identificadores.
+     *
+     * @return Número de usuarios cuyo estado cambió.
+     */
+    public int updateEnabled(List<Long> ids, boolean enabled) {
+        var updated = 0;
+        for (var chunk : chunks(ids)) {
+            updated += jdbcTemplate.update(UPDATE_ENABLED, Map.of("ids", chunk, "enabled", enabled));
+        }
+        return updated;
+    }
+
+    /**
+     * Reemplaza los roles de los usuarios indicados.
+     */
+    public void replaceAuthorities(List<Long> ids, List<String> authorities) {
+        for (var chunk : chunks(ids)) {
+            jdbcTemplate.update(DELETE_USERS_ROLES, Map.of("ids", chunk));
+            if (!authorities.isEmpty()) {
+                jdbcTemplate.update(INSERT_USERS_ROLES, Map.of("ids", chunk, "authorities", authorities));
+            }
+        }
+    }
+
+    /**
+     * Obtiene la versión vigente de las credenciales del usuario.
+     *
+     * @return La versión, o {@code null} si el usuario no existe.
+     */
+    public Integer findCredentialVersion(Long id) {
+        var versions = jdbcTemplate.queryForList(SELECT_CREDENTIAL_VERSION, Map.of("id", id), Integer.class);
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    /**
+     * Incrementa la versión de las credenciales de los usuarios indicados, dentro de la transacción en curso.
+     */
+    public void incrementCredentialVersions(List<Long> ids) {
+        for (var chunk : chunks(ids)) {
+            jdbcTemplate.update(INCREMENT_CREDENTIAL_VERSIONS, Map.of("ids", chunk));
+        }
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        var chunks = new ArrayList<List<Long>>();
+        for (int i = 0; i < ids.size(); i += IDS_PER_STATEMENT) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + IDS_PER_STATEMENT)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Usuario afectado por una operación masiva.
+     */
+    public record UserTarget(Long id, String username, String email) {
+    }
+}
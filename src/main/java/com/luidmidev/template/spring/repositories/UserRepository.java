@@ -1,18 +1,87 @@
 package com.luidmidev.template.spring.repositories;
 
+import com.luidmidev.template.spring.dto.UserSummary;
 import com.luidmidev.template.spring.models.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
+
+    /**
+     * Obtiene un usuario con sus roles en una sola consulta.
+     */
+    @Override
+    @EntityGraph(attributePaths = "authorities")
+    Optional<User> findById(String id);
+
+    /**
+     * Obtiene todos los usuarios con sus roles en una sola consulta.
+     */
+    @Override
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAll();
+
     Optional<User> findByEmail(String email);
 
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
 
+    /**
+     * Carga el usuario autenticado con sus roles en una sola consulta; el resultado se usa fuera de la transacción.
+     */
+    @EntityGraph(attributePaths = "authorities")
     Optional<User> findByUsernameOrEmail(String username, String email);
+
+    /**
+     * Obtiene una página de usuarios con identificador mayor al cursor indicado, sin cargar las entidades ni sus roles.
+     */
+    @Query("select new com.luidmidev.template.spring.dto.UserSummary(u.id, u.name, u.lastname, u.username, u.email, u.cedula, u.enabled) from User u where u.id > :after order by u.id")
+    List<UserSummary> findSummariesAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Obtiene los nombres de los roles de los usuarios indicados en una sola consulta.
+     */
+    @Query("select u.id as userId, a.name as authority from User u join u.authorities a where u.id in :ids")
+    List<UserAuthorityName> findAuthorityNames(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Busca en una sola consulta, usando los índices únicos, los usuarios que ya tienen el nombre de usuario o el
+     * email indicados. Un parámetro {@code null} no coincide con ningún usuario.
+     */
+    @Query("select u.id as id, u.username as username, u.email as email from User u where u.username = :username or u.email = :email")
+    List<UserIdentity> findIdentityConflicts(@Param("username") String username, @Param("email") String email);
+
+    /**
+     * Reemplaza solo el hash de la contraseña del usuario, sin cargar ni escribir el resto de la entidad.
+     *
+     * @return Número de usuarios actualizados.
+     */
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    interface UserIdentity {
+        Long getId();
+
+        String getUsername();
+
+        String getEmail();
+    }
+
+    interface UserAuthorityName {
+        Long getUserId();
+
+        String getAuthority();
+    }
 }
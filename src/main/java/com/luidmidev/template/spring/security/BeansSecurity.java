@@ -1,9 +1,9 @@
 package com.luidmidev.template.spring.security;
 
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
@@ -11,16 +11,43 @@ import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
 
 import java.util.HashMap;
 
+@Log4j2
 @Configuration
 public class PassworEncoderConfig {
+    /**
+     * Codificador de contraseñas de la aplicación. El cálculo de los hashes se realiza en un grupo de hilos
+     * acotado para no bloquear los hilos del servidor web durante ráfagas de inicios de sesión.
+     * <p>
+     * Si la calibración está habilitada, los parámetros de Argon2 y BCrypt se ajustan al iniciar para que cada
+     * hash tome aproximadamente la latencia objetivo en el equipo actual. Ambos formatos guardan sus parámetros
+     * junto al hash, por lo que los hashes anteriores se siguen verificando y se recodifican en el siguiente inicio
+     * de sesión exitoso. PBKDF2 no guarda sus iteraciones en el hash, así que solo se mide y conserva los valores
+     * por defecto para no invalidar los hashes existentes.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        var encodingId = "argon2";
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${security.password.hashing.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.hashing.retry-after-seconds:2}") int retryAfterSeconds,
+            @Value("${security.password.algorithm:argon2}") String algorithm,
+            @Value("${security.password.calibration.enabled:true}") boolean calibrationEnabled,
+            @Value("${security.password.calibration.target-millis:50}") long targetMillis,
+            @Value("${security.password.argon2.memory-kib:16384}") int argon2MemoryKib
+    ) {
+        var calibrator = new PasswordHashCalibrator(targetMillis, argon2MemoryKib);
+        var calibration = calibrationEnabled ? calibrator.calibrate() : calibrator.defaults();
+
+        var encodingId = algorithm;
+        if (!encodingId.equals("argon2") && !encodingId.equals("bcrypt")) {
+            log.warn("El algoritmo de contraseñas '{}' no admite parámetros calibrados, se utilizará argon2", algorithm);
+            encodingId = "argon2";
+        }
+
         var encoders = new HashMap<String, PasswordEncoder>();
-        encoders.put("bcrypt", new BCryptPasswordEncoder());
+        encoders.put("bcrypt", calibration.bcrypt());
         encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
         encoders.put("scrypt", SCryptPasswordEncoder.defaultsForSpringSecurity_v5_8());
-        encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
-        return new DelegatingPasswordEncoder(encodingId, encoders);
+        encoders.put("argon2", calibration.argon2());
+        return new BoundedPasswordEncoder(new DelegatingPasswordEncoder(encodingId, encoders), threads, queueCapacity, retryAfterSeconds);
     }
 }
@@ -0,0 +1,160 @@
+package com.luidmidev.template.spring.security;
+
+import com.luidmidev.template.spring.exceptions.ServerBusyException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Codificador de contraseñas que ejecuta el cálculo de los hashes en un grupo de hilos dedicado y acotado.
+ * <p>
+ * El cálculo de hashes costosos (Argon2, BCrypt, ...) no debe ocupar todos los hilos del servidor web durante
+ * una ráfaga de inicios de sesión. Cuando el grupo y su cola están llenos, la solicitud se rechaza de inmediato
+ * con un {@link ServerBusyException} en lugar de esperar.
+ */
+@Log4j2
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final int retryAfterSeconds;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    /**
+     * @param delegate          Codificador que realiza el cálculo de los hashes.
+     * @param threads           Número de hilos dedicados al cálculo de hashes.
+     * @param queueCapacity     Número máximo de solicitudes en espera.
+     * @param retryAfterSeconds Segundos sugeridos al cliente para reintentar cuando el grupo está saturado.
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, int retryAfterSeconds) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        var counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            var thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        log.info("Grupo de hilos para hashing de contraseñas: {} hilos, cola de {}", threads, queueCapacity);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Callable<T> task) {
+        var enqueuedAt = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                var startedAt = System.nanoTime();
+                waitNanos.add(startedAt - enqueuedAt);
+                try {
+                    return task.call();
+                } finally {
+                    var elapsed = System.nanoTime() - startedAt;
+                    hashNanos.add(elapsed);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServerBusyException("El servidor está procesando demasiadas solicitudes, intente nuevamente en unos segundos", retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Se interrumpió el cálculo del hash de la contraseña", e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+            if (cause instanceof Error error) throw error;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Obtiene el codificador que realiza el cálculo de los hashes, para procesos por lotes que gestionan su propio
+     * grupo de hilos y no deben competir con los inicios de sesión.
+     */
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Obtiene las métricas del grupo de hilos de hashing.
+     *
+     * @return Profundidad de la cola, hilos activos, operaciones completadas y rechazadas y latencias.
+     */
+    public HashingStats stats() {
+        var count = completed.sum();
+        return new HashingStats(
+                executor.getQueue().size(),
+                executor.getQueue().remainingCapacity(),
+                executor.getActiveCount(),
+                executor.getMaximumPoolSize(),
+                count,
+                rejected.sum(),
+                count == 0 ? 0 : hashNanos.sum() / count / 1_000_000.0,
+                maxHashNanos.get() / 1_000_000.0,
+                count == 0 ? 0 : waitNanos.sum() / count / 1_000_000.0
+        );
+    }
+
+    /**
+     * Detiene el grupo de hilos. Spring lo invoca al cerrar el contexto.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Métricas del grupo de hilos de hashing.
+     *
+     * @param queueDepth        Solicitudes en espera.
+     * @param queueRemaining    Espacio libre en la cola.
+     * @param activeThreads     Hilos calculando un hash.
+     * @param maxThreads        Tamaño del grupo.
+     * @param completed         Hashes calculados.
+     * @param rejected          Solicitudes rechazadas por saturación.
+     * @param avgHashMillis     Latencia promedio del cálculo del hash.
+     * @param maxHashMillis     Latencia máxima del cálculo del hash.
+     * @param avgWaitMillis     Tiempo promedio de espera en la cola.
+     */
+    public record HashingStats(int queueDepth, int queueRemaining, int activeThreads, int maxThreads, long completed,
+                               long rejected, double avgHashMillis, double maxHashMillis, double avgWaitMillis) {
+    }
+}
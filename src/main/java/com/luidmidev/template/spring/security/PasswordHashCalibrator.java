@@ -0,0 +1,117 @@
+package com.luidmidev.template.spring.security;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import static org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256;
+
+/**
+ * Mide el costo de Argon2, BCrypt y PBKDF2 en el equipo actual y calcula los parámetros que se acercan a una
+ * latencia objetivo por hash.
+ * <p>
+ * Los parámetros calculados nunca son inferiores a los valores por defecto de Spring Security 5.8, de modo que
+ * un equipo muy rápido aumenta el costo pero un equipo lento no reduce la seguridad.
+ */
+@Log4j2
+public class PasswordHashCalibrator {
+
+    public static final int ARGON2_SALT_LENGTH = 16;
+    public static final int ARGON2_HASH_LENGTH = 32;
+    public static final int ARGON2_PARALLELISM = 1;
+    public static final int ARGON2_MIN_ITERATIONS = 2;
+    public static final int ARGON2_MAX_ITERATIONS = 64;
+    public static final int BCRYPT_MIN_STRENGTH = 10;
+    public static final int BCRYPT_MAX_STRENGTH = 16;
+    public static final int PBKDF2_MIN_ITERATIONS = 310000;
+
+    private static final String SAMPLE_PASSWORD = "Calibraci0n#Contraseña";
+    private static final int SAMPLES = 3;
+
+    private final long targetMillis;
+    private final int argon2MemoryKib;
+
+    /**
+     * @param targetMillis    Latencia objetivo por hash en milisegundos.
+     * @param argon2MemoryKib Memoria usada por Argon2 en KiB; se mantiene fija y se ajustan las iteraciones.
+     */
+    public PasswordHashCalibrator(long targetMillis, int argon2MemoryKib) {
+        this.targetMillis = targetMillis;
+        this.argon2MemoryKib = argon2MemoryKib;
+    }
+
+    /**
+     * Parámetros por defecto, usados cuando la calibración está deshabilitada.
+     */
+    public Calibration defaults() {
+        return new Calibration(argon2MemoryKib, ARGON2_MIN_ITERATIONS, BCRYPT_MIN_STRENGTH, PBKDF2_MIN_ITERATIONS);
+    }
+
+    /**
+     * Ejecuta las mediciones y calcula los parámetros de cada algoritmo.
+     *
+     * @return Parámetros calibrados.
+     */
+    public Calibration calibrate() {
+        var argon2Millis = measure(argon2(ARGON2_MIN_ITERATIONS));
+        var argon2Iterations = clamp(Math.round(ARGON2_MIN_ITERATIONS * targetMillis / argon2Millis), ARGON2_MIN_ITERATIONS, ARGON2_MAX_ITERATIONS);
+
+        // Cada incremento en la fuerza de BCrypt duplica su costo
+        var bcryptMillis = measure(new BCryptPasswordEncoder(BCRYPT_MIN_STRENGTH));
+        var bcryptStrength = clamp(BCRYPT_MIN_STRENGTH + (long) Math.floor(Math.log(targetMillis / bcryptMillis) / Math.log(2)), BCRYPT_MIN_STRENGTH, BCRYPT_MAX_STRENGTH);
+
+        var pbkdf2Millis = measure(pbkdf2(PBKDF2_MIN_ITERATIONS));
+        var pbkdf2Iterations = clamp(Math.round(PBKDF2_MIN_ITERATIONS * targetMillis / pbkdf2Millis), PBKDF2_MIN_ITERATIONS, Integer.MAX_VALUE);
+
+        log.info("Calibración de hashing ({} ms objetivo): argon2 {} ms con {} iteraciones -> {} iteraciones; bcrypt {} ms con fuerza {} -> fuerza {}; pbkdf2 {} ms con {} iteraciones -> {} iteraciones",
+                targetMillis,
+                String.format("%.1f", argon2Millis), ARGON2_MIN_ITERATIONS, argon2Iterations,
+                String.format("%.1f", bcryptMillis), BCRYPT_MIN_STRENGTH, bcryptStrength,
+                String.format("%.1f", pbkdf2Millis), PBKDF2_MIN_ITERATIONS, pbkdf2Iterations);
+
+        return new Calibration(argon2MemoryKib, argon2Iterations, bcryptStrength, pbkdf2Iterations);
+    }
+
+    private Argon2PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM, argon2MemoryKib, iterations);
+    }
+
+    private static Pbkdf2PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 16, iterations, PBKDF2WithHmacSHA256);
+    }
+
+    /**
+     * Mide el tiempo promedio de un hash, descartando una ejecución inicial de calentamiento.
+     */
+    private static double measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        var start = System.nanoTime();
+        for (int i = 0; i < SAMPLES; i++) encoder.encode(SAMPLE_PASSWORD);
+        return Math.max(0.1, (System.nanoTime() - start) / (SAMPLES * 1_000_000.0));
+    }
+
+    private static int clamp(long value, int min, int max) {
+        return (int) Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Parámetros de costo de cada algoritmo.
+     *
+     * @param argon2MemoryKib  Memoria de Argon2 en KiB.
+     * @param argon2Iterations Iteraciones de Argon2.
+     * @param bcryptStrength   Fuerza (log2 de rondas) de BCrypt.
+     * @param pbkdf2Iterations Iteraciones de PBKDF2.
+     */
+    public record Calibration(int argon2MemoryKib, int argon2Iterations, int bcryptStrength, int pbkdf2Iterations) {
+
+        public PasswordEncoder argon2() {
+            return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM, argon2MemoryKib, argon2Iterations);
+        }
+
+        public PasswordEncoder bcrypt() {
+            return new BCryptPasswordEncoder(bcryptStrength);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.luidmidev.template.spring.security;
+
+import com.luidmidev.template.spring.utils.ExpiringLruCache;
+import com.luidmidev.template.spring.utils.ExpiringLruCache.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+
+/**
+ * Caché en memoria de los usuarios autenticados mediante JWT, indexada por el asunto (subject) del token.
+ * <p>
+ * Evita consultar el usuario y sus roles en la base de datos en cada solicitud autenticada. Cualquier
+ * operación que modifique el estado, la contraseña o los roles de un usuario debe invocar
+ * {@link #evictAfterCommit(String)} para que el cambio tenga efecto inmediato.
+ */
+@Component
+public class PrincipalCache {
+
+    private final ExpiringLruCache<String, UserDetails> cache;
+
+    PrincipalCache(@Value("${security.principal-cache.max-size:10000}") int maxSize, @Value("${security.principal-cache.ttl-millis:60000}") long ttlMillis) {
+        this.cache = new ExpiringLruCache<>(maxSize, ttlMillis);
+    }
+
+    /**
+     * Obtiene el usuario asociado al asunto del token, cargándolo con la función indicada si no está en caché.
+     *
+     * @param subject Asunto del token JWT (nombre de usuario).
+     * @param loader  Función que carga el usuario desde la fuente de datos.
+     * @return Los detalles del usuario.
+     */
+    public UserDetails get(String subject, Function<String, UserDetails> loader) {
+        return cache.getOrLoad(subject, loader);
+    }
+
+    /**
+     * Elimina el usuario de la caché.
+     *
+     * @param subject Asunto del token JWT (nombre de usuario).
+     */
+    public void evict(String subject) {
+        if (subject != null) cache.remove(subject);
+    }
+
+    /**
+     * Elimina el usuario de la caché al confirmarse la transacción en curso, o de inmediato si no hay una.
+     * <p>
+     * Si se eliminara antes de confirmar, una solicitud concurrente podría volver a cargar y guardar en caché el
+     * usuario sin los cambios; si la transacción se revierte, la caché no se toca.
+     *
+     * @param subject Asunto del token JWT (nombre de usuario).
+     */
+    public void evictAfterCommit(String subject) {
+        if (subject == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(subject);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(subject);
+            }
+        });
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,30 @@
+package com.luidmidev.template.spring.security;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+/**
+ * Rutas públicas de la aplicación, accesibles sin autenticación.
+ * <p>
+ * El mismo comparador, compilado una sola vez, se usa para declarar las rutas como {@code permitAll} en
+ * {@link WebSecurityConfig} y para omitir el procesamiento del token JWT en esas rutas.
+ */
+public final class PublicRoutes {
+
+    public static final RequestMatcher MATCHER = new OrRequestMatcher(
+            antMatcher(HttpMethod.GET, "/files/**"),
+            antMatcher("/"),
+            antMatcher("/authenticate"),
+            antMatcher("/register"),
+            antMatcher(HttpMethod.GET, "/availability"),
+            antMatcher("/forgot-password"),
+            antMatcher("/reset-password")
+    );
+
+    private PublicRoutes() {
+        throw new IllegalStateException("Utility class");
+    }
+}
@@ -3,6 +3,7 @@ package com.luidmidev.template.spring.security;
 
 import com.luidmidev.template.spring.exceptions.ErrorResponse;
 import com.luidmidev.template.spring.security.filters.JwtOncePerRequestFilter;
+import com.luidmidev.template.spring.security.filters.RateLimitFilter;
 import com.luidmidev.template.spring.services.UserService;
 import com.luidmidev.template.spring.utils.EnvironmentChecker;
 import jakarta.servlet.http.HttpServletResponse;
@@ -10,7 +11,6 @@ import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -34,8 +34,6 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.util.HashMap;
 import java.util.List;
 
-import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
-
 /**
  * Clase de configuración de seguridad para Spring Security.
  */
@@ -45,12 +43,14 @@ import static org.springframework.security.web.util.matcher.AntPathRequestMatche
 public class WebSecurityConfig {
     private final UserService securityUserDetailsService;
     private final JwtOncePerRequestFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final EnvironmentChecker environmentChecker;
 
     @Autowired
-    WebSecurityConfig(UserService securityUserDetailsService, JwtOncePerRequestFilter jwtAuthenticationFilter, EnvironmentChecker environmentChecker) {
+    WebSecurityConfig(UserService securityUserDetailsService, JwtOncePerRequestFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter, EnvironmentChecker environmentChecker) {
         this.securityUserDetailsService = securityUserDetailsService;
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
         this.environmentChecker = environmentChecker;
     }
 
@@ -75,20 +75,18 @@ public class WebSecurityConfig {
 
         log.info("Configurando autorización de solicitudes HTTP");
         http.authorizeHttpRequests(auth -> auth
-                .requestMatchers(
-                        antMatcher(HttpMethod.GET, "/files/**")
-                ).permitAll()
-                .requestMatchers(
-                        "/",
-                        "/authenticate",
-                        "/register",
-                        "/forgot-password",
-                        "/reset-password"
-                ).permitAll()
+                .requestMatchers(PublicRoutes.MATCHER).permitAll()
                 .requestMatchers(
                         "/update",
                         "/whoami"
                 ).authenticated()
+                .requestMatchers(
+                        "/metrics/**",
+                        "/users/import/**",
+                        "/users/bulk",
+                        "/users/export/**",
+                        "/audits/**"
+                ).hasAuthority("ADMIN")
                 .anyRequest().authenticated()
 
         );
@@ -112,6 +110,9 @@ public class WebSecurityConfig {
         log.info("Configurando filtro de autenticación JWT");
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
+        log.info("Configurando limitador de solicitudes");
+        http.addFilterBefore(rateLimitFilter, JwtOncePerRequestFilter.class);
+
         http.userDetailsService(securityUserDetailsService);
 
 
@@ -155,6 +156,7 @@ public class WebSecurityConfig {
         var authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(securityUserDetailsService);
         authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserDetailsPasswordService(securityUserDetailsService);
         return authenticationProvider;
     }
 }
@@ -0,0 +1,92 @@
+package com.luidmidev.template.spring.security.filters;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Envoltorio de solicitud que lee el cuerpo una sola vez y permite volver a leerlo en los filtros y
+ * controladores posteriores. El cuerpo se guarda en memoria, por lo que su tamaño está acotado.
+ */
+public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    /**
+     * @param maxBytes Tamaño máximo del cuerpo.
+     * @throws BodyTooLargeException Si el cuerpo supera el tamaño máximo.
+     */
+    public CachedBodyHttpServletRequest(HttpServletRequest request, int maxBytes) throws IOException {
+        super(request);
+        if (request.getContentLengthLong() > maxBytes) throw new BodyTooLargeException(maxBytes);
+        // Content-Length puede faltar (chunked) o no coincidir; se lee un byte más para detectar el exceso
+        var read = request.getInputStream().readNBytes(maxBytes + 1);
+        if (read.length > maxBytes) throw new BodyTooLargeException(maxBytes);
+        this.body = read;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        var input = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return input.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                // El cuerpo ya está en memoria: todos los datos están disponibles de inmediato
+                try {
+                    if (!isFinished()) listener.onDataAvailable();
+                    listener.onAllDataRead();
+                } catch (IOException e) {
+                    listener.onError(e);
+                }
+            }
+
+            @Override
+            public int read() {
+                return input.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return input.read(b, off, len);
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        var encoding = getCharacterEncoding();
+        var charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    /**
+     * El cuerpo de la solicitud supera el tamaño máximo que se guarda en memoria.
+     */
+    public static class BodyTooLargeException extends IOException {
+        public BodyTooLargeException(int maxBytes) {
+            super("El cuerpo de la solicitud supera los " + maxBytes + " bytes");
+        }
+    }
+}
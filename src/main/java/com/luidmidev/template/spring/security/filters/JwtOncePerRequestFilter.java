@@ -1,8 +1,11 @@
 package com.luidmidev.template.spring.security.filters;
 
 import com.luidmidev.template.spring.exceptions.ErrorResponse;
+import com.luidmidev.template.spring.security.PrincipalCache;
+import com.luidmidev.template.spring.security.PublicRoutes;
 import com.luidmidev.template.spring.security.UserDetailsAuthenticaction;
 import com.luidmidev.template.spring.security.jwt.Jwt;
+import com.luidmidev.template.spring.security.jwt.RevokedJwtException;
 import com.luidmidev.template.spring.services.UserService;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
@@ -28,19 +31,34 @@ import java.io.IOException;
 @Log4j2
 @Component
 public class JwtOncePerRequestFilter extends OncePerRequestFilter {
+
     private final Jwt jwt;
     private final UserService userDetailsService;
+    private final PrincipalCache principalCache;
 
 
     /**
      * Instantiates a new Jwt once per request filter.
      *
-     * @param jwt            the jwt util
+     * @param jwt                the jwt util
      * @param userDetailsService the user details service
+     * @param principalCache     the principal cache
      */
-    public JwtOncePerRequestFilter(Jwt jwt, UserService userDetailsService) {
+    public JwtOncePerRequestFilter(Jwt jwt, UserService userDetailsService, PrincipalCache principalCache) {
         this.jwt = jwt;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+    }
+
+    /**
+     * Omite el procesamiento del token en las rutas públicas, que no requieren un usuario autenticado.
+     *
+     * @param request Objeto HttpServletRequest que representa la solicitud HTTP actual.
+     * @return {@code true} si la ruta es pública.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return PublicRoutes.MATCHER.matches(request);
     }
 
     /**
@@ -55,19 +73,27 @@ public class JwtOncePerRequestFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 
-        final String authenticationHeader = request.getHeader("Authorization");
+        final CharSequence jwtToken = Jwt.bearerToken(request.getHeader("Authorization"));
 
-        if (authenticationHeader == null || !authenticationHeader.startsWith("Bearer ")) {
+        if (jwtToken == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        final String jwtToken = authenticationHeader.replace("Bearer ", "");
-
         try {
 
-            String username = jwt.getSubject(jwtToken);
-            UserDetails user = userDetailsService.loadUserByUsername(username);
+            UserDetails user = jwt.isSelfContained() ? jwt.getSelfContainedUser(jwtToken) : null;
+
+            if (user == null) {
+                String username = jwt.getSubject(jwtToken);
+                user = principalCache.get(username, userDetailsService::loadPrincipal);
+            }
+
+            if (!user.isEnabled()) {
+                writeError(HttpServletResponse.SC_UNAUTHORIZED, "Usuario deshabilitado", response);
+                return;
+            }
+
             var authentication = new UserDetailsAuthenticaction(user);
             SecurityContextHolder.getContext().setAuthentication(authentication);
             filterChain.doFilter(request, response);
@@ -77,6 +103,8 @@ public class JwtOncePerRequestFilter extends OncePerRequestFilter {
             writeError(HttpServletResponse.SC_UNAUTHORIZED, "Token de autenticación no soportado, inicie sesion nuevamente", response);
         } catch (MalformedJwtException err) {
             writeError(HttpServletResponse.SC_UNAUTHORIZED, "Token de autenticación inválido, inicie sesion nuevamente", response);
+        } catch (RevokedJwtException err) {
+            writeError(HttpServletResponse.SC_UNAUTHORIZED, "Sesión revocada. Inicie sesión nuevamente", response);
         } catch (ExpiredJwtException err) {
             writeError(HttpServletResponse.SC_CONFLICT, "Sesión expirada. Inicie sesión nuevamente", response);
         } catch (UsernameNotFoundException err) {
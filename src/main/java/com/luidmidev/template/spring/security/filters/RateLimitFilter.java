@@ -0,0 +1,139 @@
+package com.luidmidev.template.spring.security.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luidmidev.template.spring.exceptions.ErrorResponse;
+import com.luidmidev.template.spring.security.ratelimit.RateLimitProperties;
+import com.luidmidev.template.spring.security.ratelimit.TokenBucketRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Filtro que limita la frecuencia de solicitudes a las rutas públicas costosas ({@code /authenticate},
+ * {@code /forgot-password}, {@code /register}) y a la consulta pública de disponibilidad ({@code /availability}),
+ * que de otro modo permitiría enumerar usuarios y emails registrados, por IP del cliente y por cuenta.
+ * <p>
+ * Se ejecuta antes del filtro JWT, de modo que las solicitudes rechazadas nunca llegan al cálculo de hashes
+ * de contraseñas ni al envío de correos.
+ */
+@Log4j2
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, RouteLimiters> limiters = new HashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        properties.getRoutes().forEach((path, route) -> limiters.put(path, new RouteLimiters(
+                route.getMethod(),
+                new TokenBucketRateLimiter(route.getIp().getCapacity(), route.getIp().getRefillPerMinute()),
+                new TokenBucketRateLimiter(route.getAccount().getCapacity(), route.getAccount().getRefillPerMinute())
+        )));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled()) return true;
+        var route = limiters.get(request.getServletPath());
+        return route == null || !route.method().equalsIgnoreCase(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        var route = limiters.get(request.getServletPath());
+
+        var retryAfterMillis = route.ip().tryAcquire(request.getRemoteAddr());
+        if (retryAfterMillis > 0) {
+            reject(response, retryAfterMillis);
+            return;
+        }
+
+        var effectiveRequest = request;
+        var account = request.getParameter("username");
+        if (account == null || account.isBlank()) account = request.getParameter("email");
+
+        if ((account == null || account.isBlank()) && isJson(request)) {
+            CachedBodyHttpServletRequest cached;
+            try {
+                cached = new CachedBodyHttpServletRequest(request, properties.getMaxBodyBytes());
+            } catch (CachedBodyHttpServletRequest.BodyTooLargeException e) {
+                reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "El cuerpo de la solicitud es demasiado grande");
+                return;
+            }
+            account = readAccount(cached.getBody());
+            effectiveRequest = cached;
+        }
+
+        if (account != null && !account.isBlank()) {
+            retryAfterMillis = route.account().tryAcquire(account.trim().toLowerCase(Locale.ROOT));
+            if (retryAfterMillis > 0) {
+                reject(response, retryAfterMillis);
+                return;
+            }
+        }
+
+        filterChain.doFilter(effectiveRequest, response);
+    }
+
+    /**
+     * Elimina periódicamente las claves inactivas para mantener acotada la memoria del limitador.
+     */
+    @Scheduled(fixedDelayString = "${security.rate-limit.sweep-interval-millis:60000}")
+    public void evictIdle() {
+        for (var route : limiters.values()) {
+            route.ip().evictIdle();
+            route.account().evictIdle();
+        }
+    }
+
+    private static boolean isJson(HttpServletRequest request) {
+        var contentType = request.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private String readAccount(byte[] body) {
+        try {
+            var node = objectMapper.readTree(body);
+            if (node == null) return null;
+            var username = node.path("username");
+            if (username.isTextual()) return username.asText();
+            var email = node.path("email");
+            if (email.isTextual()) return email.asText();
+        } catch (IOException e) {
+            log.debug("No se pudo leer la cuenta del cuerpo de la solicitud: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterMillis) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfterMillis + 999) / 1000)));
+        reject(response, HttpStatus.TOO_MANY_REQUESTS, "Demasiadas solicitudes, intente nuevamente más tarde");
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(objectMapper.writeValueAsString(ErrorResponse.of(message, status.value())));
+    }
+
+    private record RouteLimiters(String method, TokenBucketRateLimiter ip, TokenBucketRateLimiter account) {
+    }
+}
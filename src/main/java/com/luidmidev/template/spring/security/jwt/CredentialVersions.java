@@ -0,0 +1,108 @@
+package com.luidmidev.template.spring.security.jwt;
+
+import com.luidmidev.template.spring.repositories.UserJdbcRepository;
+import com.luidmidev.template.spring.utils.ExpiringLruCache;
+import com.luidmidev.template.spring.utils.ExpiringLruCache.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Versión mínima de credenciales válida por usuario, guardada en la columna {@code users.credential_version}.
+ * <p>
+ * Los tokens autocontenidos llevan la versión vigente al momento de emitirse; al cambiar la contraseña,
+ * los roles o el estado de un usuario se incrementa su versión en la misma transacción que el cambio y los tokens
+ * anteriores dejan de ser aceptados, también en las demás réplicas y tras un reinicio.
+ * <p>
+ * Las versiones leídas se guardan en caché por {@code security.credential-versions.ttl-millis} (por defecto el mismo
+ * tiempo que {@link com.luidmidev.template.spring.security.PrincipalCache}). La caché de esta instancia se invalida al
+ * confirmarse el incremento; las demás réplicas rechazan los tokens revocados como máximo tras ese tiempo.
+ */
+@Component
+public class CredentialVersions {
+
+    /**
+     * Versión de un usuario que ya no existe: ningún token la alcanza.
+     */
+    private static final int DELETED = Integer.MAX_VALUE;
+
+    private final UserJdbcRepository repository;
+
+    private final ExpiringLruCache<Long, Integer> versions;
+
+    CredentialVersions(
+            UserJdbcRepository repository,
+            @Value("${security.credential-versions.max-size:${security.principal-cache.max-size:10000}}") int maxSize,
+            @Value("${security.credential-versions.ttl-millis:${security.principal-cache.ttl-millis:60000}}") long ttlMillis
+    ) {
+        this.repository = repository;
+        this.versions = new ExpiringLruCache<>(maxSize, ttlMillis);
+    }
+
+    /**
+     * Obtiene la versión vigente de las credenciales del usuario.
+     *
+     * @param userId Identificador del usuario.
+     * @return La versión vigente; si el usuario no existe, una versión que ningún token alcanza.
+     */
+    public int current(Long userId) {
+        if (userId == null) return DELETED;
+        return versions.getOrLoad(userId, id -> {
+            var version = repository.findCredentialVersion(id);
+            return version == null ? DELETED : version;
+        });
+    }
+
+    /**
+     * Incrementa la versión de las credenciales del usuario, invalidando los tokens emitidos previamente. Si hay una
+     * transacción en curso, el incremento se confirma o se revierte con ella.
+     *
+     * @param userId Identificador del usuario.
+     */
+    public void bump(Long userId) {
+        if (userId != null) bumpAll(List.of(userId));
+    }
+
+    /**
+     * Incrementa la versión de las credenciales de varios usuarios con una sentencia por conjunto de identificadores.
+     */
+    public void bumpAll(List<Long> userIds) {
+        if (userIds.isEmpty()) return;
+        repository.incrementCredentialVersions(userIds);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userIds);
+            return;
+        }
+
+        // Si se invalidara antes de confirmar, otra solicitud podría volver a guardar la versión anterior
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(userIds);
+            }
+        });
+    }
+
+    /**
+     * Verifica si una versión de credenciales sigue siendo válida para el usuario.
+     *
+     * @param userId  Identificador del usuario.
+     * @param version Versión contenida en el token.
+     * @return {@code true} si la versión es igual o mayor a la mínima válida.
+     */
+    public boolean isValid(Long userId, int version) {
+        return version >= current(userId);
+    }
+
+    public CacheStats stats() {
+        return versions.stats();
+    }
+
+    private void evict(List<Long> userIds) {
+        for (var userId : userIds) versions.remove(userId);
+    }
+}
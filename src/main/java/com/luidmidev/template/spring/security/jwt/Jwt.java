@@ -1,16 +1,30 @@
 package com.luidmidev.template.spring.security.jwt;
 
+import com.luidmidev.template.spring.models.User;
+import com.luidmidev.template.spring.services.AuthorityRegistry;
+import com.luidmidev.template.spring.utils.ExpiringLruCache;
+import com.luidmidev.template.spring.utils.ExpiringLruCache.CacheStats;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -20,6 +34,15 @@ import java.util.function.Function;
 @Component
 public class Jwt {
 
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String ENABLED_CLAIM = "enabled";
+    private static final String VERSION_CLAIM = "ver";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final ThreadLocal<TokenDigest> DIGEST = ThreadLocal.withInitial(TokenDigest::new);
+
     /**
      * Emisor del token JWT.
      */
@@ -34,24 +57,49 @@ public class Jwt {
 
 
     /**
-     * Clave secreta utilizada para firmar el token JWT.
+     * Claves utilizadas para firmar y verificar el token JWT.
      */
-    private SecretKey signingKey;
+    private final KeyRing keyRing;
 
-    @PostConstruct
-    private void init() throws NoSuchAlgorithmException {
-        signingKey = getSigningKey();
-        final byte[] key = signingKey.getEncoded();
-        final StringBuilder keyString = new StringBuilder();
-        for (byte b : key) keyString.append(String.format("%02X", b));
-        log.info("JWT signing key: {}", keyString);
-    }
+    /**
+     * Número máximo de tokens verificados que se mantienen en caché.
+     */
+    @Value("${security.jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    /**
+     * Parser reutilizable; es inmutable y seguro para hilos una vez construido.
+     */
+    private JwtParser parser;
 
+    /**
+     * Caché de reclamos ya verificados, indexada por el resumen SHA-256 del token.
+     */
+    private ExpiringLruCache<String, Claims> verifiedClaims;
 
-    private SecretKey getSigningKey() throws NoSuchAlgorithmException {
-        return Jwts.SIG.HS512.key()
-                .random(SecureRandom.getInstanceStrong())
+    /**
+     * Indica si los tokens se emiten autocontenidos, es decir, con los datos necesarios para autenticar
+     * al usuario sin consultar la base de datos.
+     */
+    @Value("${security.jwt.self-contained:false}")
+    private boolean selfContained;
+
+    private final CredentialVersions credentialVersions;
+
+    private final AuthorityRegistry authorityRegistry;
+
+    public Jwt(KeyRing keyRing, CredentialVersions credentialVersions, AuthorityRegistry authorityRegistry) {
+        this.keyRing = keyRing;
+        this.credentialVersions = credentialVersions;
+        this.authorityRegistry = authorityRegistry;
+    }
+
+    @PostConstruct
+    private void init() {
+        parser = Jwts.parser()
+                .keyLocator(keyRing.locator())
                 .build();
+        verifiedClaims = new ExpiringLruCache<>(cacheMaxSize);
     }
 
     /**
@@ -62,6 +110,31 @@ public class Jwt {
      * @return El token JWT generado.
      */
     public String create(String id, String subject) {
+        return create(id, subject, Map.of());
+    }
+
+    /**
+     * Crea un token JWT para el usuario indicado. Si el modo autocontenido está habilitado, el token incluye el
+     * identificador del usuario, sus roles, su estado y la versión de sus credenciales leída con el usuario, no la de
+     * la caché de {@link CredentialVersions}, que en otra réplica puede ser anterior a un incremento ya confirmado.
+     *
+     * @param user Usuario para el cual se emite el token.
+     * @return El token JWT generado.
+     */
+    public String create(User user) {
+        if (!selfContained) return create(user.getId().toString(), user.getUsername());
+
+        var roles = user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+
+        return create(user.getId().toString(), user.getUsername(), Map.of(
+                USER_ID_CLAIM, user.getId(),
+                ROLES_CLAIM, roles,
+                ENABLED_CLAIM, user.isEnabled(),
+                VERSION_CLAIM, user.getCredentialVersion()
+        ));
+    }
+
+    private String create(String id, String subject, Map<String, ?> claims) {
 
         log.info("Creating JWT for user id {} and subject {}", id, subject);
 
@@ -70,11 +143,13 @@ public class Jwt {
         var now = new Date(nowMillis);
 
         var builder = Jwts.builder()
+                .header().keyId(keyRing.getActiveKeyId()).and() // Clave con la que se firma el token
                 .id(id) // ID del token
                 .issuedAt(now) // Fecha de creación del token
                 .subject(subject) // Asunto del token
                 .issuer(issuer) // Emisor del token
-                .signWith(signingKey, Jwts.SIG.HS512);  // Firma del token
+                .claims(claims) // Reclamos adicionales
+                .signWith(keyRing.getActiveSigningKey());  // Firma del token, el algoritmo se deduce de la clave
 
         if (ttlMillis >= 0) {
             var expMillis = nowMillis + ttlMillis;
@@ -91,7 +166,7 @@ public class Jwt {
      * @param jwt Token JWT del cual se obtiene el nombre de usuario.
      * @return El nombre de usuario del token.
      */
-    public String getId(String jwt) {
+    public String getId(CharSequence jwt) {
         log.debug("getting id from jwt '{}'", jwt);
         return getClaim(jwt, Claims::getId);
     }
@@ -102,11 +177,45 @@ public class Jwt {
      * @param jwt Token JWT del cual se obtiene el correo electrónico.
      * @return El correo electrónico del token.
      */
-    public String getSubject(String jwt) {
+    public String getSubject(CharSequence jwt) {
         log.debug("getting subject from jwt '{}'", jwt);
         return getClaim(jwt, Claims::getSubject);
     }
 
+    public boolean isSelfContained() {
+        return selfContained;
+    }
+
+    /**
+     * Construye el usuario autenticado a partir de los reclamos de un token autocontenido.
+     *
+     * @param jwt Token JWT del cual se obtiene el usuario.
+     * @return El usuario descrito por el token, o {@code null} si el token no es autocontenido.
+     * @throws RevokedJwtException Si la versión de credenciales del token fue revocada.
+     */
+    public User getSelfContainedUser(CharSequence jwt) {
+        var claims = getAllClaims(jwt);
+        var version = claims.get(VERSION_CLAIM, Integer.class);
+        if (version == null) return null;
+
+        var userId = claims.get(USER_ID_CLAIM, Long.class);
+        if (!credentialVersions.isValid(userId, version)) {
+            throw new RevokedJwtException("Las credenciales del token fueron revocadas");
+        }
+
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        var authorities = authorityRegistry.canonicalize(roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .toList());
+
+        return User.builder()
+                .id(userId)
+                .username(claims.getSubject())
+                .enabled(Boolean.TRUE.equals(claims.get(ENABLED_CLAIM, Boolean.class)))
+                .authorities(authorities)
+                .build();
+    }
+
     /**
      * Obtiene un reclamo específico del token JWT utilizando un resolvedor de reclamos dado.
      *
@@ -115,7 +224,7 @@ public class Jwt {
      * @param <T>            Tipo de dato del reclamo que se desea obtener.
      * @return El reclamo específico del token JWT.
      */
-    private <T> T getClaim(String jwt, Function<Claims, T> claimsResolver) {
+    private <T> T getClaim(CharSequence jwt, Function<Claims, T> claimsResolver) {
         var claims = getAllClaims(jwt);
         return claimsResolver.apply(claims);
     }
@@ -130,22 +239,94 @@ public class Jwt {
      * @return El reclamo específico del token JWT.
      * @param <T>           Tipo de dato del reclamo que se desea obtener.
      */
-    private <T> T getClaim(String jwt, String claimName, Class<T> clazz) {
+    private <T> T getClaim(CharSequence jwt, String claimName, Class<T> clazz) {
         var claims = getAllClaims(jwt);
         return claims.get(claimName, clazz);
     }
 
     /**
      * Obtiene todos los reclamos (Claims) contenidos en el token JWT.
+     * <p>
+     * Los tokens ya verificados se sirven desde caché hasta su fecha de expiración, evitando repetir la
+     * verificación de la firma y la decodificación del contenido en cada solicitud.
      *
      * @param jwt Token JWT del cual se obtendrán los reclamos.
      * @return Objeto Claims que representa todos los reclamos del token JWT.
      */
-    private Claims getAllClaims(String jwt) {
-        return Jwts.parser()
-                .verifyWith(signingKey)
-                .build()
-                .parseSignedClaims(jwt)
-                .getPayload();
+    private Claims getAllClaims(CharSequence jwt) {
+        var key = digest(jwt);
+        var cached = verifiedClaims.get(key);
+        if (cached != null) return cached;
+
+        var claims = parser.parseSignedClaims(jwt).getPayload();
+        var expiration = claims.getExpiration();
+        verifiedClaims.put(key, claims, expiration == null ? Long.MAX_VALUE : expiration.getTime());
+        return claims;
+    }
+
+    /**
+     * Obtiene las estadísticas de uso de la caché de tokens verificados.
+     *
+     * @return Aciertos, fallos, desalojos y ocupación de la caché.
+     */
+    public CacheStats getCacheStats() {
+        return verifiedClaims.stats();
+    }
+
+    /**
+     * Calcula el resumen SHA-256 del token codificado en UTF-8. El token lo envía el cliente y puede contener
+     * cualquier carácter, por lo que no se trunca cada carácter a un byte: dos tokens distintos no deben compartir
+     * la entrada de la caché.
+     */
+    static String digest(CharSequence jwt) {
+        return Base64.getEncoder().encodeToString(DIGEST.get().digest(jwt));
+    }
+
+    /**
+     * Obtiene el token de un encabezado {@code Authorization} de tipo Bearer.
+     *
+     * @param header Valor del encabezado, o {@code null} si la solicitud no lo tiene.
+     * @return Vista del token sobre el encabezado, sin copiar sus caracteres, o {@code null} si no es de tipo Bearer.
+     */
+    public static CharSequence bearerToken(String header) {
+        if (header == null || !header.startsWith(BEARER_PREFIX)) return null;
+        return CharBuffer.wrap(header, BEARER_PREFIX.length(), header.length());
+    }
+
+    /**
+     * Resumen SHA-256 de un hilo. Los caracteres se codifican en UTF-8 por tramos en un búfer reutilizado que se
+     * pasa directamente al resumen, sin copiar el token a un {@code String} ni a un arreglo de bytes. Las
+     * secuencias UTF-16 inválidas se reemplazan igual que en {@link String#getBytes(java.nio.charset.Charset)}.
+     */
+    private static final class TokenDigest {
+
+        private final MessageDigest digest;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+        TokenDigest() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 no está disponible", e);
+            }
+        }
+
+        byte[] digest(CharSequence text) {
+            var chars = text instanceof CharBuffer charBuffer ? charBuffer.duplicate() : CharBuffer.wrap(text);
+            encoder.reset();
+            while (encoder.encode(chars, buffer, true).isOverflow()) drain();
+            while (encoder.flush(buffer).isOverflow()) drain();
+            drain();
+            return digest.digest();
+        }
+
+        private void drain() {
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
     }
 }
@@ -0,0 +1,185 @@
+package com.luidmidev.template.spring.security.jwt;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Conjunto de claves usadas para firmar y verificar tokens JWT, identificadas por su {@code kid}.
+ * <p>
+ * Las claves se cargan, en orden de prioridad, desde:
+ * <ol>
+ *     <li>Un almacén de claves PKCS12 ({@code security.jwt.keystore.path}). Las entradas de clave privada
+ *     (EC P-256 para ES256, Ed25519 para EdDSA o RSA) y las claves secretas HMAC pueden firmar; los certificados
+ *     de confianza solo verifican. El alias de cada entrada es su {@code kid} y {@code security.jwt.keystore.active-alias}
+ *     indica cuál firma.</li>
+ *     <li>El secreto configurado en {@code security.jwt.secret}, del cual se deriva una clave HS512. Los secretos
+ *     de {@code security.jwt.previous-secrets} se mantienen solo para verificación durante una rotación.</li>
+ *     <li>Una clave aleatoria generada al iniciar, que no sobrevive a reinicios ni se comparte entre réplicas.</li>
+ * </ol>
+ * Al derivarse de forma determinista, todas las réplicas con la misma configuración aceptan los tokens de las demás.
+ */
+@Log4j2
+@Component
+public class KeyRing {
+
+    @Value("${security.jwt.keystore.path:}")
+    private String keystorePath;
+
+    @Value("${security.jwt.keystore.password:}")
+    private String keystorePassword;
+
+    @Value("${security.jwt.keystore.active-alias:}")
+    private String activeAlias;
+
+    @Value("${security.jwt.secret:}")
+    private String secret;
+
+    @Value("${security.jwt.previous-secrets:}")
+    private String[] previousSecrets;
+
+    /**
+     * Claves de verificación indexadas por su identificador.
+     */
+    private Map<String, Key> verificationKeys;
+
+    private String activeKeyId;
+
+    private Key activeSigningKey;
+
+    @PostConstruct
+    private void init() throws GeneralSecurityException {
+        var keys = new LinkedHashMap<String, Key>();
+
+        if (!keystorePath.isBlank()) {
+            loadKeystore(keys);
+        } else if (!secret.isBlank()) {
+            loadSecrets(keys);
+        } else {
+            log.warn("No se ha configurado security.jwt.secret ni security.jwt.keystore.path, se generará una clave aleatoria y los tokens no sobrevivirán a un reinicio");
+            var key = Jwts.SIG.HS512.key().random(new SecureRandom()).build();
+            activeKeyId = keyIdOf(key.getEncoded());
+            activeSigningKey = key;
+            keys.put(activeKeyId, key);
+        }
+
+        verificationKeys = Collections.unmodifiableMap(keys);
+        log.info("Clave de firma JWT activa: {} ({} claves de verificación)", activeKeyId, verificationKeys.size());
+    }
+
+    private void loadKeystore(Map<String, Key> keys) throws GeneralSecurityException {
+        var password = keystorePassword.toCharArray();
+        KeyStore keystore;
+        try {
+            keystore = KeyStore.getInstance(new File(keystorePath), password);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer el almacén de claves JWT: " + keystorePath, e);
+        }
+
+        for (var alias : Collections.list(keystore.aliases())) {
+            if (keystore.isKeyEntry(alias)) {
+                var key = keystore.getKey(alias, password);
+                if (key instanceof PrivateKey) {
+                    keys.put(alias, keystore.getCertificate(alias).getPublicKey());
+                } else {
+                    keys.put(alias, key);
+                }
+                if (alias.equals(activeAlias) || (activeAlias.isBlank() && activeSigningKey == null)) {
+                    activeKeyId = alias;
+                    activeSigningKey = key;
+                }
+            } else if (keystore.isCertificateEntry(alias)) {
+                keys.put(alias, keystore.getCertificate(alias).getPublicKey());
+            }
+        }
+
+        if (activeSigningKey == null) {
+            throw new IllegalStateException("El almacén de claves JWT no contiene la clave de firma '" + activeAlias + "'");
+        }
+    }
+
+    private void loadSecrets(Map<String, Key> keys) {
+        var active = deriveKey(secret);
+        activeKeyId = keyIdOf(active.getEncoded());
+        activeSigningKey = active;
+        keys.put(activeKeyId, active);
+
+        Arrays.stream(previousSecrets)
+                .filter(previous -> !previous.isBlank())
+                .forEach(previous -> {
+                    var key = deriveKey(previous);
+                    keys.putIfAbsent(keyIdOf(key.getEncoded()), key);
+                });
+    }
+
+    /**
+     * Deriva una clave HS512 de 512 bits a partir de un secreto de longitud arbitraria.
+     */
+    private static Key deriveKey(String secret) {
+        return Keys.hmacShaKeyFor(sha(secret.getBytes(StandardCharsets.UTF_8), "SHA-512"));
+    }
+
+    /**
+     * Genera un identificador estable para una clave simétrica sin revelar su contenido.
+     */
+    private static String keyIdOf(byte[] key) {
+        return "hs-" + HexFormat.of().formatHex(sha(key, "SHA-256"), 0, 8);
+    }
+
+    private static byte[] sha(byte[] input, String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm).digest(input);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(algorithm + " no está disponible", e);
+        }
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    /**
+     * Obtiene la clave con la que se firman los tokens nuevos. El algoritmo se deduce del tipo y tamaño de la clave.
+     */
+    public Key getActiveSigningKey() {
+        return activeSigningKey;
+    }
+
+    /**
+     * Localizador de claves de verificación a partir del encabezado {@code kid} del token.
+     * Los tokens sin {@code kid} se verifican con la clave activa.
+     */
+    public LocatorAdapter<Key> locator() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                var kid = header.getKeyId();
+                if (kid == null) return verificationKeys.get(activeKeyId);
+                var key = verificationKeys.get(kid);
+                if (key == null) throw new UnsupportedJwtException("Clave de firma desconocida: " + kid);
+                return key;
+            }
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.luidmidev.template.spring.security.jwt;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Excepción lanzada cuando un token autocontenido fue emitido con una versión de credenciales ya revocada.
+ */
+public class RevokedJwtException extends JwtException {
+
+    public RevokedJwtException(String message) {
+        super(message);
+    }
+}
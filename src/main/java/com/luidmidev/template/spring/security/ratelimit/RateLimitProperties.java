@@ -0,0 +1,67 @@
+package com.luidmidev.template.spring.security.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuración del limitador de solicitudes de las rutas públicas costosas.
+ * <p>
+ * Cada ruta se limita por IP del cliente y por cuenta (nombre de usuario o correo electrónico enviado en la
+ * solicitud), por ejemplo: {@code security.rate-limit.routes[/authenticate].account.capacity=5}. Las rutas se
+ * limitan en las solicitudes POST salvo que se indique otro método, por ejemplo
+ * {@code security.rate-limit.routes[/availability].method=GET}.
+ */
+@Data
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Intervalo en milisegundos entre las limpiezas de claves inactivas.
+     */
+    private long sweepIntervalMillis = 60000;
+
+    /**
+     * Tamaño máximo en bytes del cuerpo JSON que se lee para obtener la cuenta; los cuerpos mayores se rechazan.
+     */
+    private int maxBodyBytes = 16384;
+
+    private Map<String, Route> routes = new LinkedHashMap<>(Map.of(
+            "/authenticate", new Route("POST", new Limit(20, 20), new Limit(5, 5)),
+            "/forgot-password", new Route("POST", new Limit(5, 5), new Limit(3, 1)),
+            "/register", new Route("POST", new Limit(10, 10), new Limit(3, 3)),
+            "/availability", new Route("GET", new Limit(30, 30), new Limit(10, 10))
+    ));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Route {
+        /**
+         * Método HTTP de las solicitudes que se limitan.
+         */
+        private String method = "POST";
+        private Limit ip = new Limit();
+        private Limit account = new Limit();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        /**
+         * Número máximo de solicitudes en ráfaga.
+         */
+        private long capacity = 10;
+        /**
+         * Solicitudes recuperadas por minuto.
+         */
+        private long refillPerMinute = 10;
+    }
+}
@@ -0,0 +1,108 @@
+package com.luidmidev.template.spring.security.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador de solicitudes por clave basado en el algoritmo de cubeta de fichas (token bucket).
+ * <p>
+ * Cada clave ocupa una cubeta de tamaño constante (fichas disponibles e instante de la última recarga). Las
+ * actualizaciones se sincronizan con un arreglo fijo de bloqueos repartidos por el hash de la clave, de modo que
+ * claves distintas rara vez compiten entre sí. Una cubeta inactiva el tiempo suficiente para volver a llenarse
+ * equivale a una clave nueva, por lo que {@link #evictIdle()} puede eliminarla sin cambiar el comportamiento.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private final long nanosToFill;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+
+    /**
+     * @param capacity        Número máximo de fichas (ráfaga permitida).
+     * @param refillPerMinute Fichas recargadas por minuto.
+     */
+    public TokenBucketRateLimiter(long capacity, long refillPerMinute) {
+        this(capacity, refillPerMinute, System::nanoTime);
+    }
+
+    /**
+     * @param capacity        Número máximo de fichas (ráfaga permitida).
+     * @param refillPerMinute Fichas recargadas por minuto.
+     * @param clock           Reloj monotónico en nanosegundos.
+     */
+    public TokenBucketRateLimiter(long capacity, long refillPerMinute, LongSupplier clock) {
+        if (capacity <= 0 || refillPerMinute <= 0) {
+            throw new IllegalArgumentException("La capacidad y la recarga del limitador deben ser mayores a cero");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.nanosToFill = (long) Math.ceil(capacity / tokensPerNano);
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) locks[i] = new Object();
+    }
+
+    /**
+     * Intenta consumir una ficha de la cubeta de la clave.
+     *
+     * @param key Clave a limitar (IP, usuario, correo, ...).
+     * @return Cero si la solicitud está permitida, o los milisegundos que faltan para disponer de una ficha.
+     */
+    public long tryAcquire(String key) {
+        var lock = locks[(key.hashCode() & 0x7fffffff) % STRIPES];
+        while (true) {
+            var bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, clock.getAsLong()));
+            synchronized (lock) {
+                // La cubeta pudo ser eliminada por inactividad entre su obtención y el bloqueo
+                if (buckets.get(key) != bucket) continue;
+
+                var now = clock.getAsLong();
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) * tokensPerNano);
+                bucket.updatedAt = now;
+
+                if (bucket.tokens >= 1) {
+                    bucket.tokens -= 1;
+                    return 0;
+                }
+
+                var missingNanos = (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(missingNanos));
+            }
+        }
+    }
+
+    /**
+     * Elimina las cubetas que, por inactividad, ya estarían llenas.
+     */
+    public void evictIdle() {
+        var now = clock.getAsLong();
+        for (var entry : buckets.entrySet()) {
+            var lock = locks[(entry.getKey().hashCode() & 0x7fffffff) % STRIPES];
+            synchronized (lock) {
+                if (now - entry.getValue().updatedAt >= nanosToFill) {
+                    buckets.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
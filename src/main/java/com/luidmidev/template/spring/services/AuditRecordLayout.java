@@ -0,0 +1,151 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.dto.AuditEntry;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Formato binario de los segmentos del registro de auditoría mapeado en memoria.
+ * <p>
+ * Cada segmento empieza con una cabecera de {@value #HEADER_SIZE} bytes (marca {@link #SEGMENT_MAGIC}, versión,
+ * tamaño de registro, capacidad en registros e instante inicial en microsegundos) seguida de registros de tamaño
+ * fijo ({@value #RECORD_SIZE} bytes), lo que permite ubicar el registro n-ésimo sin recorrer los anteriores:
+ * <pre>
+ * offset  tamaño  campo
+ *  0      4       marca de registro confirmado ({@link #RECORD_MAGIC}); se escribe al final
+ *  4      2       longitud de la descripción en bytes
+ *  6      1       longitud de la IP (0, 4 o 16)
+ *  7      1       indicadores; {@link #HAS_USER} indica que el registro tiene usuario
+ *  8      8       fecha en microsegundos desde epoch (UTC), no decreciente dentro de un segmento
+ * 16      8       identificador del usuario
+ * 24      16      IP
+ * 40      216     descripción en UTF-8, truncada
+ * </pre>
+ * Los registros escritos antes de usar los indicadores tienen el byte 7 en cero y representan "sin usuario" con el
+ * identificador 0; se siguen leyendo así.
+ */
+final class AuditRecordLayout {
+
+    static final int SEGMENT_MAGIC = 0x41554431; // "AUD1"
+    static final int RECORD_MAGIC = 0x52454331; // "REC1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 256;
+
+    static final int VERSION_OFFSET = 4;
+    static final int RECORD_SIZE_OFFSET = 8;
+    static final int CAPACITY_OFFSET = 12;
+    static final int START_OFFSET = 16;
+
+    static final int LENGTH_OFFSET = 4;
+    static final int IP_LENGTH_OFFSET = 6;
+    static final int FLAGS_OFFSET = 7;
+    static final int TIME_OFFSET = 8;
+    static final int USER_OFFSET = 16;
+    static final int IP_OFFSET = 24;
+    static final int DESCRIPTION_OFFSET = 40;
+    static final int MAX_DESCRIPTION = RECORD_SIZE - DESCRIPTION_OFFSET;
+
+    static final byte HAS_USER = 0x01;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private AuditRecordLayout() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static long offsetOf(int index) {
+        return HEADER_SIZE + (long) index * RECORD_SIZE;
+    }
+
+    static long toMicros(LocalDateTime datetime) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, datetime.atZone(ZONE).toInstant());
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofInstant(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), ZONE);
+    }
+
+    /**
+     * Escribe un registro en la posición indicada. La marca de confirmación se escribe al final, de modo que un
+     * lector nunca ve un registro a medio escribir.
+     */
+    static void write(ByteBuffer buffer, int position, long micros, AuditEntry entry) {
+        var description = encodeDescription(entry.getDescription());
+        var ip = encodeIp(entry.getIp());
+
+        buffer.putShort(position + LENGTH_OFFSET, (short) description.length);
+        buffer.put(position + IP_LENGTH_OFFSET, (byte) ip.length);
+        buffer.put(position + FLAGS_OFFSET, entry.getUserId() == null ? 0 : HAS_USER);
+        buffer.putLong(position + TIME_OFFSET, micros);
+        buffer.putLong(position + USER_OFFSET, entry.getUserId() == null ? 0 : entry.getUserId());
+        buffer.put(position + IP_OFFSET, ip);
+        buffer.put(position + DESCRIPTION_OFFSET, description);
+        buffer.putInt(position, RECORD_MAGIC);
+    }
+
+    static boolean isCommitted(ByteBuffer buffer, int position) {
+        return buffer.getInt(position) == RECORD_MAGIC;
+    }
+
+    static long timeAt(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + TIME_OFFSET);
+    }
+
+    static AuditEntry read(ByteBuffer buffer, int position) {
+        var descriptionLength = buffer.getShort(position + LENGTH_OFFSET);
+        var ipLength = buffer.get(position + IP_LENGTH_OFFSET);
+
+        var description = new byte[descriptionLength];
+        buffer.get(position + DESCRIPTION_OFFSET, description);
+
+        String ip = null;
+        if (ipLength > 0) {
+            var address = new byte[ipLength];
+            buffer.get(position + IP_OFFSET, address);
+            try {
+                ip = InetAddress.getByAddress(address).getHostAddress();
+            } catch (UnknownHostException e) {
+                ip = null;
+            }
+        }
+
+        var userId = buffer.getLong(position + USER_OFFSET);
+        var hasUser = (buffer.get(position + FLAGS_OFFSET) & HAS_USER) != 0 || userId != 0;
+        return new AuditEntry(null, fromMicros(buffer.getLong(position + TIME_OFFSET)), hasUser ? userId : null, null, ip, null, new String(description, StandardCharsets.UTF_8));
+    }
+
+    private static byte[] encodeDescription(String description) {
+        if (description == null) return new byte[0];
+        var bytes = description.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_DESCRIPTION) return bytes;
+
+        // Se corta en un límite de carácter para no dejar una secuencia UTF-8 incompleta
+        var length = MAX_DESCRIPTION;
+        while (length > 0 && (bytes[length] & 0xC0) == 0x80) length--;
+        var truncated = new byte[length];
+        System.arraycopy(bytes, 0, truncated, 0, length);
+        return truncated;
+    }
+
+    /**
+     * Convierte una IP literal a bytes sin consultar DNS. Los valores que no son IPs literales se descartan.
+     */
+    private static byte[] encodeIp(String ip) {
+        if (ip == null || ip.isBlank()) return new byte[0];
+        var literal = ip.chars().allMatch(c -> Character.digit(c, 16) >= 0 || c == '.' || c == ':');
+        if (!literal) return new byte[0];
+        try {
+            return InetAddress.getByName(ip).getAddress();
+        } catch (UnknownHostException e) {
+            return new byte[0];
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.luidmidev.template.spring.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.luidmidev.template.spring.dto.AuditEntry;
+import com.luidmidev.template.spring.exceptions.ClientException;
+import com.luidmidev.template.spring.models.AuditArchive;
+import com.luidmidev.template.spring.repositories.AuditArchiveRepository;
+import com.luidmidev.template.spring.repositories.SessionAuditJdbcRepository;
+import com.luidmidev.template.spring.utils.PathMultipartFile;
+import com.waipersoft.store.targets.mongo.GridFSFileStoreService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Política de retención de la auditoría de sesiones.
+ * <p>
+ * Periódicamente procesa, día por día y empezando por el más antiguo, los registros con más antigüedad que la
+ * configurada: calcula el resumen diario por usuario y código de acción, guarda los registros del día en un archivo
+ * NDJSON comprimido con gzip (en disco o en el almacén de archivos) y luego los elimina en lotes acotados para no
+ * mantener bloqueos largos. Los archivos se pueden volver a leer filtrándolos mientras se descomprimen.
+ * <p>
+ * El resumen y el archivo se registran antes de eliminar, junto con el identificador del último registro incluido,
+ * y solo se eliminan los registros hasta ese identificador. Si el proceso se interrumpe, la siguiente ejecución
+ * termina de eliminar los registros ya archivados; los registros del día que llegan después de archivarlo se
+ * agregan al archivo y al resumen antes de eliminarlos.
+ * <p>
+ * Solo una instancia de la aplicación ejecuta la retención a la vez (bloqueo {@value #LOCK_NAME} de MySQL).
+ */
+@Log4j2
+@Service
+public class AuditRetentionService {
+
+    private static final String STORAGE_DISK = "disk";
+    private static final String STORAGE_STORE = "store";
+
+    private static final String LOCK_NAME = "session_audit_retention";
+
+    private final SessionAuditJdbcRepository jdbcRepository;
+    private final AuditArchiveRepository archiveRepository;
+    private final GridFSFileStoreService fileStoreService;
+    private final FileDownloadService downloadService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${audit.retention.enabled:false}")
+    private boolean enabled;
+
+    @Value("${audit.retention.days:180}")
+    private int retentionDays;
+
+    @Value("${audit.retention.storage:disk}")
+    private String storage;
+
+    @Value("${audit.retention.archive-dir:audit-archive}")
+    private Path archiveDir;
+
+    @Value("${audit.retention.delete-batch-size:5000}")
+    private int deleteBatchSize;
+
+    @Value("${audit.retention.delete-pause-millis:50}")
+    private long deletePauseMillis;
+
+    @Value("${audit.retention.max-days-per-run:31}")
+    private int maxDaysPerRun;
+
+    AuditRetentionService(SessionAuditJdbcRepository jdbcRepository, AuditArchiveRepository archiveRepository, GridFSFileStoreService fileStoreService, FileDownloadService downloadService, TransactionTemplate transactionTemplate, ObjectMapper objectMapper) {
+        this.jdbcRepository = jdbcRepository;
+        this.archiveRepository = archiveRepository;
+        this.fileStoreService = fileStoreService;
+        this.downloadService = downloadService;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Archiva y elimina los registros anteriores al periodo de retención.
+     */
+    @Scheduled(cron = "${audit.retention.cron:0 30 2 * * *}")
+    public void run() {
+        if (!enabled) return;
+
+        var cutoff = LocalDate.now().minusDays(retentionDays);
+        var processed = new AtomicInteger();
+
+        var ran = jdbcRepository.runLocked(LOCK_NAME, () -> {
+            try {
+                LocalDateTime oldest;
+                while (processed.get() < maxDaysPerRun && (oldest = jdbcRepository.findOldestDatetime()) != null && oldest.toLocalDate().isBefore(cutoff)) {
+                    retire(oldest.toLocalDate());
+                    processed.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Error en la retención de auditoría", e);
+            }
+        });
+
+        if (!ran) log.debug("La retención de auditoría se está ejecutando en otra instancia");
+        if (processed.get() > 0) log.info("Retención de auditoría: {} días archivados (anteriores a {})", processed.get(), cutoff);
+    }
+
+    /**
+     * Resume, archiva y elimina los registros de un día.
+     */
+    private void retire(LocalDate day) throws IOException, InterruptedException {
+        var from = day.atStartOfDay();
+        var to = day.plusDays(1).atStartOfDay();
+
+        var archive = archiveRepository.findByDay(day).orElse(null);
+        // Los archivos anteriores a last_id no indican qué registros incluyen: los restantes se agregan al archivo,
+        // aunque alguno ya estuviera archivado, para no eliminar registros sin archivar
+        long archivedId = archive == null || archive.getLastId() == null ? 0 : archive.getLastId();
+
+        var lastId = jdbcRepository.findMaxId(from, to, archivedId);
+        if (lastId != null) {
+            archive(day, archive, archivedId, lastId);
+            archivedId = lastId;
+        }
+
+        int deleted;
+        do {
+            deleted = jdbcRepository.deleteRange(from, to, archivedId, deleteBatchSize);
+            if (deleted > 0 && deletePauseMillis > 0) Thread.sleep(deletePauseMillis);
+        } while (deleted >= deleteBatchSize);
+    }
+
+    /**
+     * Archiva y resume los registros de un día con identificador en {@code (afterId, lastId]}. Si el día ya tenía un
+     * archivo, se guarda uno nuevo con el contenido anterior seguido de los registros nuevos y después se elimina el
+     * anterior.
+     */
+    private void archive(LocalDate day, AuditArchive previous, long afterId, long lastId) throws IOException {
+        var temp = Files.createTempFile("session_audit-" + day + "-", ".ndjson.gz");
+        try {
+            if (previous != null) {
+                // gzip admite varios miembros concatenados: el contenido anterior se copia sin descomprimirlo
+                try (var input = open(previous)) {
+                    Files.copy(input, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            var rows = writeArchive(day.atStartOfDay(), day.plusDays(1).atStartOfDay(), afterId, lastId, temp);
+            var size = Files.size(temp);
+            var location = store(day, lastId, temp);
+
+            var archive = previous != null ? previous : AuditArchive.builder().day(day).build();
+            var previousStorage = archive.getStorage();
+            var previousLocation = archive.getLocation();
+            archive.setStorage(storage);
+            archive.setLocation(location);
+            archive.setRowCount(archive.getRowCount() + rows);
+            archive.setSizeBytes(size);
+            archive.setLastId(lastId);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcRepository.rollupDay(day, afterId, lastId);
+                archiveRepository.save(archive);
+            });
+
+            if (previous != null) {
+                discard(previousStorage, previousLocation);
+                log.info("Auditoría del {}: {} registros tardíos agregados al archivo", day, rows);
+            } else {
+                log.info("Auditoría del {} archivada: {} registros, {} bytes", day, rows, size);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private long writeArchive(LocalDateTime from, LocalDateTime to, long afterId, long lastId, Path file) throws IOException {
+        var rows = new AtomicLong();
+        try (var output = new GZIPOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND), 64 * 1024);
+             var writer = objectMapper.writer()
+                     .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                     .withRootValueSeparator("\n")
+                     .writeValues(output)) {
+            jdbcRepository.streamRange(from, to, afterId, lastId, entry -> {
+                try {
+                    writer.write(entry);
+                    rows.incrementAndGet();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rows.get();
+    }
+
+    private String store(LocalDate day, long lastId, Path temp) throws IOException {
+        // El nombre incluye el último registro para que agregar registros tardíos no sobrescriba el archivo vigente
+        var filename = "session_audit-" + day + "-" + lastId + ".ndjson.gz";
+
+        if (STORAGE_STORE.equals(storage)) {
+            return fileStoreService.store(new PathMultipartFile(temp, filename, "application/gzip"));
+        }
+
+        Files.createDirectories(archiveDir);
+        var target = archiveDir.resolve(filename);
+        Files.copy(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        return target.toAbsolutePath().toString();
+    }
+
+    /**
+     * Elimina un archivo reemplazado. Si falla, el archivo queda huérfano pero ya no se referencia.
+     */
+    private void discard(String archiveStorage, String location) {
+        try {
+            if (STORAGE_STORE.equals(archiveStorage)) {
+                fileStoreService.remove(location);
+            } else {
+                Files.deleteIfExists(Path.of(location));
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo eliminar el archivo de auditoría reemplazado {}: {}", location, e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene los archivos de un rango de días.
+     */
+    public List<AuditArchive> findArchives(LocalDate from, LocalDate to) {
+        return archiveRepository.findAllByDayBetweenOrderByDay(from == null ? LocalDate.EPOCH : from, to == null ? LocalDate.now() : to);
+    }
+
+    /**
+     * Escribe en formato NDJSON los registros de un archivo, descomprimiéndolos y filtrándolos a medida que se leen.
+     *
+     * @param id     Identificador del archivo.
+     * @param userId Identificador del usuario, o {@code null} para todos.
+     * @param type   Prefijo de la descripción (tipo de acción), o {@code null}.
+     * @param output Flujo de salida donde se escriben los registros.
+     * @throws IOException Si ocurre un error al leer el archivo o al escribir.
+     */
+    public void streamArchive(Long id, Long userId, String type, OutputStream output) throws IOException {
+        var archive = findArchive(id);
+        var filtered = userId != null || (type != null && !type.isBlank());
+
+        try (var input = new GZIPInputStream(open(archive), 64 * 1024)) {
+            if (!filtered) {
+                input.transferTo(output);
+                return;
+            }
+
+            var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                var entry = objectMapper.readValue(line, AuditEntry.class);
+                if (userId != null && !userId.equals(entry.getUserId())) continue;
+                if (type != null && !type.isBlank() && (entry.getDescription() == null || !entry.getDescription().startsWith(type.trim()))) continue;
+                output.write(line.getBytes(StandardCharsets.UTF_8));
+                output.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Obtiene un archivo por su identificador antes de empezar a escribir la respuesta.
+     */
+    public AuditArchive findArchive(Long id) {
+        return archiveRepository.findById(id).orElseThrow(() -> new ClientException("El archivo de auditoría no existe", HttpStatus.NOT_FOUND));
+    }
+
+    private InputStream open(AuditArchive archive) throws IOException {
+        if (STORAGE_STORE.equals(archive.getStorage())) {
+            var download = downloadService.open(archive.getLocation()).orElseThrow(() -> new ClientException("El archivo de auditoría ya no está disponible", HttpStatus.NOT_FOUND));
+            return download.openStream();
+        }
+        return Files.newInputStream(Path.of(archive.getLocation()));
+    }
+}
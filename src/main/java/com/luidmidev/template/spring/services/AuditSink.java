@@ -0,0 +1,35 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.dto.AuditEntry;
+
+import java.util.List;
+
+/**
+ * Destino de los registros de auditoría de sesiones.
+ * <p>
+ * La implementación se elige con {@code audit.sink}: {@code jdbc} (por defecto) escribe en la tabla
+ * {@code session_audit} en lotes asíncronos ({@link SessionAuditWriter}) y {@code mapped} agrega registros
+ * binarios a segmentos de archivo mapeados en memoria ({@link MappedFileAuditSink}), sin depender de la base de
+ * datos.
+ */
+public interface AuditSink {
+
+    /**
+     * Agrega un registro. No debe bloquear al llamador más allá de lo que indique la política de la implementación.
+     *
+     * @param entry Registro con la descripción, IP, fecha e identificador de usuario ya asignados.
+     */
+    void append(AuditEntry entry);
+
+    /**
+     * Agrega varios registros.
+     */
+    default void appendAll(List<AuditEntry> entries) {
+        for (var entry : entries) append(entry);
+    }
+
+    /**
+     * Métricas propias de la implementación.
+     */
+    Object stats();
+}
@@ -4,22 +4,22 @@ package com.luidmidev.template.spring.services;
 import com.luidmidev.template.spring.dto.Login;
 import com.luidmidev.template.spring.dto.RecoveryPasswordData;
 import com.luidmidev.template.spring.exceptions.ClientException;
-import com.luidmidev.template.spring.models.Authority;
-import com.luidmidev.template.spring.models.TokenForgetPassword;
+import com.luidmidev.template.spring.models.AuditAction;
 import com.luidmidev.template.spring.models.User;
-import com.luidmidev.template.spring.repositories.AuthorityRepository;
-import com.luidmidev.template.spring.repositories.TokenForgetPasswordRepository;
 import com.luidmidev.template.spring.repositories.UserRepository;
+import com.luidmidev.template.spring.security.PrincipalCache;
+import com.luidmidev.template.spring.security.jwt.CredentialVersions;
 import com.luidmidev.template.spring.security.jwt.Jwt;
-import com.waipersoft.email.EmailSenderService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.security.SecureRandom;
 import java.util.List;
 import java.util.Random;
 import java.util.UUID;
@@ -29,45 +29,34 @@ import java.util.UUID;
 @Log4j2
 public class AuthenticationService {
 
-    private static final Random random = new Random();
+    private static final Random random = new SecureRandom();
+    private static final int MAX_CODE_ATTEMPTS = 5;
 
     private final UserRepository userRepository;
-    private final TokenForgetPasswordRepository forgetPasswordRepository;
+    private final RecoveryCodeStore recoveryCodeStore;
     private final AuthenticationManager authenticationManager;
-    private final EmailSenderService emailSenderService;
+    private final EmailOutboxService emailOutbox;
     private final SessionAuditService sessionAuditService;
     private final PasswordEncoder encoder;
+    private final PrincipalCache principalCache;
+    private final CredentialVersions credentialVersions;
     private final Jwt jwt;
 
-
     @Autowired
-    public AuthenticationService(UserRepository userRepository, AuthorityRepository authorityRepository, TokenForgetPasswordRepository forgetPasswordRepository, EmailSenderService emailSenderService, Jwt jwt, AuthenticationManager authenticationManager, SessionAuditService sessionAuditService, PasswordEncoder encoder) {
+    public AuthenticationService(UserRepository userRepository, AuthorityRegistry authorityRegistry, RecoveryCodeStore recoveryCodeStore, EmailOutboxService emailOutbox, Jwt jwt, AuthenticationManager authenticationManager, SessionAuditService sessionAuditService, PasswordEncoder encoder, PrincipalCache principalCache, CredentialVersions credentialVersions) {
 
         this.userRepository = userRepository;
-        this.forgetPasswordRepository = forgetPasswordRepository;
-        this.emailSenderService = emailSenderService;
+        this.recoveryCodeStore = recoveryCodeStore;
+        this.emailOutbox = emailOutbox;
         this.jwt = jwt;
         this.authenticationManager = authenticationManager;
         this.sessionAuditService = sessionAuditService;
         this.encoder = encoder;
+        this.principalCache = principalCache;
+        this.credentialVersions = credentialVersions;
 
-        this.forgetPasswordRepository.deleteExpiredToken();
-
-        var adminRole = authorityRepository.findByName("ADMIN").orElseGet(() -> {
-            var role = Authority.builder()
-                    .name("ADMIN")
-                    .description("Rol de administrador")
-                    .build();
-            return authorityRepository.save(role);
-        });
-
-        if (!authorityRepository.existsByName("USER")) {
-            var role = Authority.builder()
-                    .name("USER")
-                    .description("Rol de usuario")
-                    .build();
-            authorityRepository.save(role);
-        }
+        var adminRole = authorityRegistry.ensure("ADMIN", "Rol de administrador");
+        authorityRegistry.ensure("USER", "Rol de usuario");
 
         if (userRepository.existsByUsername("admin159")) {
             log.info("Ya existe un usuario administrador en el sistema, omitiendo creación");
@@ -108,12 +97,23 @@ public class AuthenticationService {
 
     }
 
+    /**
+     * Autentica al usuario y emite su token JWT.
+     * <p>
+     * Se ejecuta sin transacción: la verificación del hash de la contraseña es deliberadamente costosa y no debe
+     * retener una conexión de la base de datos mientras dura. La carga del usuario, la actualización del hash y la
+     * auditoría usan sus propias transacciones.
+     *
+     * @param login Credenciales del usuario.
+     * @return El token JWT del usuario autenticado.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String authenticate(Login login) {
         var authenticationToken = UsernamePasswordAuthenticationToken.unauthenticated(login.getUsername().trim(), login.getPassword());
         var authentication = authenticationManager.authenticate(authenticationToken);
         var user = (User) authentication.getPrincipal();
-        var token = this.jwt.create(user.getId().toString(), user.getUsername());
-        sessionAuditService.saveActionUser(user, "Inicio de sesión");
+        var token = this.jwt.create(user);
+        sessionAuditService.saveActionUser(user, AuditAction.LOGIN, "Inicio de sesión");
         return token;
     }
 
@@ -126,29 +126,24 @@ public class AuthenticationService {
         }
 
         var token = generateCode();
-        saveTokenForgetPassword(email, token);
-        emailSenderService.sendSimpleMail(email, "RECUPERACIÓN DE CUENTA", "Su código de recuperación de contraseña es: " + token);
-        sessionAuditService.saveActionUser(userOptional.get(), "Solicitud de cambio de contraseña");
+        for (int attempt = 1; !recoveryCodeStore.save(token, email); attempt++) {
+            if (attempt >= MAX_CODE_ATTEMPTS) throw new ClientException("No se pudo generar el código de recuperación, por favor intente nuevamente");
+            token = generateCode();
+        }
+        emailOutbox.enqueueTemplate(email, "recovery-code", EmailOutboxService.secret(token));
+        sessionAuditService.saveActionUser(userOptional.get(), AuditAction.PASSWORD_RESET_REQUEST, "Solicitud de cambio de contraseña");
     }
 
 
     public void resetPassword(RecoveryPasswordData data) {
 
-        var tokenOptional = forgetPasswordRepository.findByToken(data.getToken());
-
-        if (tokenOptional.isEmpty()) {
-            throw new ClientException("El código de recuperación de contraseña no es válido");
-        }
-
-        var token = tokenOptional.get();
-        boolean expired = token.isExpired();
+        var email = recoveryCodeStore.consume(data.getToken());
 
-        if (expired) {
-            forgetPasswordRepository.delete(token);
-            throw new ClientException("El código de recuperación ha expirado, por favor solicite uno nuevo");
+        if (email.isEmpty()) {
+            throw new ClientException("El código de recuperación no es válido o ha expirado, por favor solicite uno nuevo");
         }
 
-        var userOptional = userRepository.findByEmail(token.getEmail());
+        var userOptional = userRepository.findByEmail(email.get());
 
         if (userOptional.isEmpty()) {
             throw new ClientException("No se pudo cambiar la contraseña, por favor intente nuevamente");
@@ -158,22 +153,12 @@ public class AuthenticationService {
 
         user.setPassword(encoder.encode(data.getPassword()));
         userRepository.save(user);
-        forgetPasswordRepository.delete(token);
-        sessionAuditService.saveActionUser(user, "Cambio de contraseña mediante código de recuperación");
+        principalCache.evictAfterCommit(user.getUsername());
+        credentialVersions.bump(user.getId());
+        sessionAuditService.saveActionUser(user, AuditAction.PASSWORD_RESET, "Cambio de contraseña mediante código de recuperación");
 
     }
 
-    private void saveTokenForgetPassword(String email, String token) {
-
-        var tokenForgetPassword = TokenForgetPassword.builder()
-                .email(email)
-                .token(token)
-                .build();
-
-        forgetPasswordRepository.save(tokenForgetPassword);
-    }
-
-
     private static String generateCode() {
         return String.format("%08d", random.nextInt(100000000));
     }
@@ -0,0 +1,157 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.models.Authority;
+import com.luidmidev.template.spring.repositories.AuthorityRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registro en memoria de los roles del sistema.
+ * <p>
+ * La tabla de roles es pequeña y casi nunca cambia, por lo que se carga al iniciar y todas las búsquedas y
+ * validaciones se resuelven desde memoria. El mapa es inmutable y se reemplaza completo cada vez que un rol
+ * cambia (copia en escritura), de modo que las lecturas no requieren sincronización. Los usuarios autenticados
+ * comparten las instancias canónicas de {@link Authority} en lugar de mantener copias propias.
+ * <p>
+ * Los roles se modifican a través de este registro, que recarga el mapa cuando la transacción se confirma; así
+ * una transacción revertida no deja roles inexistentes en memoria. Las demás instancias de la aplicación recargan
+ * los roles periódicamente ({@code security.authorities.refresh-interval-millis}).
+ */
+@Log4j2
+@Service
+public class AuthorityRegistry {
+
+    private final AuthorityRepository repository;
+
+    private volatile Map<String, Authority> authorities = Map.of();
+
+    AuthorityRegistry(AuthorityRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Recarga los roles desde la base de datos.
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${security.authorities.refresh-interval-millis:300000}", fixedDelayString = "${security.authorities.refresh-interval-millis:300000}")
+    public synchronized void refresh() {
+        var loaded = new HashMap<String, Authority>();
+        for (var authority : repository.findAll()) loaded.put(authority.getName(), authority);
+        var previous = authorities;
+        authorities = Map.copyOf(loaded);
+        if (!authorities.keySet().equals(previous.keySet())) log.info("Roles cargados en memoria: {}", authorities.keySet());
+    }
+
+    /**
+     * Recarga los roles cuando se confirme la transacción en curso, o de inmediato si no hay una.
+     */
+    public void refreshAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh();
+            }
+        });
+    }
+
+    /**
+     * Obtiene el rol con el nombre indicado, creándolo si no existe.
+     *
+     * @param name        Nombre del rol.
+     * @param description Descripción usada si el rol debe crearse.
+     * @return La instancia canónica del rol.
+     */
+    public synchronized Authority ensure(String name, String description) {
+        var existing = authorities.get(name);
+        if (existing != null) return existing;
+
+        // Otra instancia pudo crearlo después de la última recarga
+        var saved = repository.findByName(name).orElseGet(() -> repository.save(Authority.builder()
+                .name(name)
+                .description(description)
+                .build()));
+
+        refreshAfterCommit();
+        return saved;
+    }
+
+    /**
+     * Crea o modifica un rol.
+     *
+     * @return El rol guardado; es la instancia canónica una vez confirmada la transacción.
+     */
+    public Authority save(Authority authority) {
+        var saved = repository.save(authority);
+        refreshAfterCommit();
+        return saved;
+    }
+
+    /**
+     * Elimina un rol.
+     *
+     * @return {@code true} si el rol existía.
+     */
+    public boolean delete(String name) {
+        var existing = repository.findByName(name);
+        if (existing.isEmpty()) return false;
+        repository.delete(existing.get());
+        refreshAfterCommit();
+        return true;
+    }
+
+    public Optional<Authority> find(String name) {
+        return Optional.ofNullable(authorities.get(name));
+    }
+
+    /**
+     * Verifica que todos los nombres correspondan a roles existentes.
+     */
+    public boolean containsAll(Collection<String> names) {
+        var current = authorities;
+        for (var name : names) {
+            if (!current.containsKey(name)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene las instancias canónicas de los roles indicados, ignorando los nombres que no existen.
+     */
+    public List<Authority> resolve(Collection<String> names) {
+        var current = authorities;
+        return names.stream()
+                .distinct()
+                .map(current::get)
+                .filter(authority -> authority != null)
+                .toList();
+    }
+
+    /**
+     * Reemplaza los roles indicados por sus instancias canónicas. Los roles desconocidos se conservan tal cual.
+     */
+    public List<Authority> canonicalize(Collection<? extends GrantedAuthority> granted) {
+        var current = authorities;
+        return granted.stream()
+                .map(authority -> {
+                    var canonical = current.get(authority.getAuthority());
+                    if (canonical != null) return canonical;
+                    return authority instanceof Authority entity ? entity : Authority.builder().name(authority.getAuthority()).build();
+                })
+                .toList();
+    }
+}
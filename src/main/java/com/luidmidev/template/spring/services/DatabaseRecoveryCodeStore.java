@@ -0,0 +1,52 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.models.TokenForgetPassword;
+import com.luidmidev.template.spring.repositories.TokenForgetPasswordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Códigos de recuperación en la tabla {@code token_forget_password}. Los códigos vencidos se ignoran en la consulta
+ * y {@link TokenForgetPasswordPurger} los elimina periódicamente.
+ */
+@Component
+@ConditionalOnProperty(name = "security.password-reset.store", havingValue = "database", matchIfMissing = true)
+public class DatabaseRecoveryCodeStore implements RecoveryCodeStore {
+
+    private final TokenForgetPasswordRepository repository;
+    private final RecoveryCodeHasher hasher;
+
+    @Value("${security.password-reset.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    DatabaseRecoveryCodeStore(TokenForgetPasswordRepository repository, RecoveryCodeHasher hasher) {
+        this.repository = repository;
+        this.hasher = hasher;
+    }
+
+    @Override
+    @Transactional
+    public boolean save(String code, String email) {
+        var hash = hasher.hash(code);
+        if (repository.existsByToken(hash)) return false;
+
+        repository.save(TokenForgetPassword.builder()
+                .email(email)
+                .token(hash)
+                .build());
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public Optional<String> consume(String code) {
+        var token = repository.findValidByToken(hasher.hash(code), LocalDateTime.now().minusMinutes(ttlMinutes));
+        token.ifPresent(repository::delete);
+        return token.map(TokenForgetPassword::getEmail);
+    }
+}
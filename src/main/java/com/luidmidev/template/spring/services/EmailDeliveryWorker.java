@@ -0,0 +1,319 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.repositories.EmailOutboxJdbcRepository;
+import com.luidmidev.template.spring.repositories.EmailOutboxJdbcRepository.PendingEmail;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Envía en segundo plano los emails de la bandeja de salida.
+ * <p>
+ * Cada hilo reserva un lote de emails pendientes y los envía con una sola llamada a {@link JavaMailSender}, que
+ * reutiliza una conexión SMTP para todo el lote en lugar de abrir una por email. Los emails enviados se eliminan;
+ * los fallidos se reprograman con espera exponencial con variación aleatoria hasta agotar los intentos. Los hilos
+ * esperan al siguiente sondeo o a que {@link EmailOutboxService} les avise de emails nuevos.
+ * <p>
+ * Los secretos de los emails se insertan desde {@link EmailSecrets} al armar el mensaje; un email cuyos secretos ya no
+ * están disponibles se descarta. Los emails descartados se guardan sin contenido y se eliminan tras
+ * {@code email.outbox.failed-retention-days}.
+ */
+@Log4j2
+@Component
+public class EmailDeliveryWorker {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String UTF_8 = "UTF-8";
+
+    private final EmailOutboxJdbcRepository repository;
+    private final EmailSecrets secrets;
+    private final JavaMailSender mailSender;
+    private final String from;
+    private final int threads;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long leaseMillis;
+    private final int maxAttempts;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final long failedRetentionDays;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failedAttempts = new LongAdder();
+    private final LongAdder givenUp = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder deliveryLagMillis = new LongAdder();
+    private volatile long lastBatchMillis;
+
+    private final Object monitor = new Object();
+    private final List<Thread> workers = new ArrayList<>();
+    private boolean signalled;
+    private volatile boolean running = true;
+
+    EmailDeliveryWorker(
+            EmailOutboxJdbcRepository repository,
+            EmailSecrets secrets,
+            JavaMailSender mailSender,
+            @Value("${email.outbox.from:${spring.mail.username:}}") String from,
+            @Value("${email.outbox.threads:2}") int threads,
+            @Value("${email.outbox.batch-size:50}") int batchSize,
+            @Value("${email.outbox.poll-interval-millis:5000}") long pollIntervalMillis,
+            @Value("${email.outbox.lease-millis:120000}") long leaseMillis,
+            @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${email.outbox.backoff-base-millis:30000}") long backoffBaseMillis,
+            @Value("${email.outbox.backoff-max-millis:3600000}") long backoffMaxMillis,
+            @Value("${email.outbox.failed-retention-days:7}") long failedRetentionDays
+    ) {
+        this.repository = repository;
+        this.secrets = secrets;
+        this.mailSender = mailSender;
+        this.from = from;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.leaseMillis = leaseMillis;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.failedRetentionDays = failedRetentionDays;
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 1; i <= threads; i++) {
+            var worker = new Thread(this::run, "email-delivery-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Envío de emails iniciado: {} hilos, lotes de {}, sondeo cada {} ms, hasta {} intentos", threads, batchSize, pollIntervalMillis, maxAttempts);
+    }
+
+    /**
+     * Avisa a los hilos de envío de que hay emails nuevos.
+     */
+    public void wakeUp() {
+        synchronized (monitor) {
+            signalled = true;
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Detiene los hilos de envío. Los emails reservados que no se llegaron a enviar vuelven a estar disponibles al
+     * vencer su reserva.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        wakeUp();
+        for (var worker : workers) worker.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * Elimina los emails descartados tras el periodo de retención y los emails con secretos de instancias que ya no
+     * los pueden enviar.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval-millis:3600000}")
+    void purge() {
+        var now = LocalDateTime.now();
+        var purged = repository.purge(now.minusDays(failedRetentionDays), secrets.node(), now.minus(Duration.ofMillis(secrets.ttlMillis())));
+        if (purged > 0) log.info("Bandeja de salida de emails: {} emails descartados eliminados", purged);
+    }
+
+    public EmailOutboxStats stats() {
+        var backlog = repository.backlog();
+        var lagSeconds = backlog.oldest() == null ? 0 : Math.max(0, Duration.between(backlog.oldest(), LocalDateTime.now()).toSeconds());
+        var delivered = sent.sum();
+        return new EmailOutboxStats(
+                backlog.pending(),
+                lagSeconds,
+                backlog.failed(),
+                delivered,
+                failedAttempts.sum(),
+                givenUp.sum(),
+                batches.sum(),
+                lastBatchMillis,
+                delivered == 0 ? 0 : deliveryLagMillis.sum() / delivered
+        );
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (deliverBatch() < batchSize) awaitWork();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error al procesar la bandeja de salida de emails", e);
+                try {
+                    awaitWork();
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void awaitWork() throws InterruptedException {
+        synchronized (monitor) {
+            if (!signalled && running) monitor.wait(pollIntervalMillis);
+            signalled = false;
+        }
+    }
+
+    /**
+     * Reserva y envía un lote de emails.
+     *
+     * @return Número de emails reservados; si es menor al tamaño del lote no quedan más pendientes por ahora.
+     */
+    int deliverBatch() {
+        var claimed = repository.claim(secrets.node(), batchSize, LocalDateTime.now().plus(Duration.ofMillis(leaseMillis)));
+        if (claimed.isEmpty()) return 0;
+
+        var start = System.nanoTime();
+        var emails = new ArrayList<PendingEmail>(claimed.size());
+        var prepared = new ArrayList<MimeMessage>(claimed.size());
+        for (var email : claimed) {
+            var body = email.secretRef() == null ? email.body() : secrets.reveal(email.secretRef(), email.body());
+            if (body == null) {
+                discard(email, "Los datos protegidos del email vencieron antes del envío");
+                continue;
+            }
+            try {
+                prepared.add(toMessage(email, body));
+                emails.add(email);
+            } catch (MessagingException e) {
+                reschedule(email, e, LocalDateTime.now());
+            }
+        }
+        if (emails.isEmpty()) return claimed.size();
+
+        var messages = prepared.toArray(MimeMessage[]::new);
+
+        Map<Object, Exception> failures;
+        try {
+            mailSender.send(messages);
+            failures = Map.of();
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            // Sin detalle por mensaje no se sabe cuáles se enviaron; se reintentan todos
+            if (failures.isEmpty()) failures = allFailed(messages, e);
+        } catch (MailException e) {
+            failures = allFailed(messages, e);
+        }
+
+        var now = LocalDateTime.now();
+        var delivered = new ArrayList<Long>(emails.size());
+        for (int i = 0; i < emails.size(); i++) {
+            var email = emails.get(i);
+            var failure = failures.get(messages[i]);
+            if (failure == null) {
+                delivered.add(email.id());
+                if (email.secretRef() != null) secrets.release(email.secretRef());
+                deliveryLagMillis.add(Math.max(0, Duration.between(email.createdAt(), now).toMillis()));
+            } else {
+                reschedule(email, failure, now);
+            }
+        }
+
+        repository.deleteAll(delivered);
+        sent.add(delivered.size());
+        batches.increment();
+        lastBatchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        if (!failures.isEmpty()) log.warn("Lote de emails enviado con errores: {} enviados, {} fallidos", delivered.size(), emails.size() - delivered.size());
+        return claimed.size();
+    }
+
+    private void reschedule(PendingEmail email, Exception failure, LocalDateTime now) {
+        var attempts = email.attempts() + 1;
+        var exhausted = attempts >= maxAttempts;
+        var error = String.valueOf(failure.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) error = error.substring(0, MAX_ERROR_LENGTH);
+
+        failedAttempts.increment();
+        if (exhausted) {
+            discard(email, error);
+            return;
+        }
+        repository.reschedule(email.id(), attempts, now.plus(Duration.ofMillis(backoff(attempts))), error);
+    }
+
+    /**
+     * Descarta un email: se marca como fallido, se borra su contenido y se liberan sus secretos.
+     */
+    private void discard(PendingEmail email, String error) {
+        var attempts = email.attempts() + 1;
+        repository.fail(email.id(), attempts, error);
+        if (email.secretRef() != null) secrets.release(email.secretRef());
+        givenUp.increment();
+        log.error("Se descarta el email {} a {} tras {} intentos: {}", email.id(), email.recipient(), attempts, error);
+    }
+
+    /**
+     * Espera exponencial con variación aleatoria: entre la mitad y el total del retardo calculado, para que los
+     * emails que fallaron juntos no se reintenten todos a la vez.
+     */
+    private long backoff(int attempts) {
+        var delay = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempts - 1, 30));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Arma el mensaje con el asunto y el cuerpo en UTF-8, para que los acentos lleguen intactos sin depender de la
+     * codificación por defecto del servidor de correo.
+     */
+    private MimeMessage toMessage(PendingEmail email, String body) throws MessagingException {
+        var message = mailSender.createMimeMessage();
+        if (!from.isBlank()) message.setFrom(new InternetAddress(from));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email.recipient()));
+        message.setSubject(email.subject(), UTF_8);
+        message.setText(body, UTF_8);
+        return message;
+    }
+
+    private static Map<Object, Exception> allFailed(MimeMessage[] messages, Exception e) {
+        var failures = new IdentityHashMap<Object, Exception>();
+        for (var message : messages) failures.put(message, e);
+        return failures;
+    }
+
+    /**
+     * Métricas de la bandeja de salida de emails.
+     *
+     * @param pending              Emails pendientes de envío.
+     * @param lagSeconds           Antigüedad del email pendiente más antiguo, en segundos.
+     * @param failed               Emails descartados tras agotar los intentos que siguen en la tabla.
+     * @param sent                 Emails enviados desde el inicio.
+     * @param failedAttempts       Intentos de envío fallidos desde el inicio.
+     * @param givenUp              Emails descartados desde el inicio.
+     * @param batches              Lotes procesados desde el inicio.
+     * @param lastBatchMillis      Duración del último lote.
+     * @param avgDeliveryLagMillis Tiempo medio entre la creación y el envío de un email.
+     */
+    public record EmailOutboxStats(long pending, long lagSeconds, long failed, long sent, long failedAttempts, long givenUp, long batches, long lastBatchMillis, long avgDeliveryLagMillis) {
+    }
+}
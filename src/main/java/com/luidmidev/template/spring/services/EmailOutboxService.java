@@ -0,0 +1,141 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.repositories.EmailOutboxJdbcRepository;
+import com.luidmidev.template.spring.repositories.EmailOutboxJdbcRepository.NewEmail;
+import com.luidmidev.template.spring.utils.MessageTemplates;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bandeja de salida de emails.
+ * <p>
+ * Los emails se escriben en la tabla {@code email_outbox} dentro de la transacción en curso, por lo que solo se
+ * envían si la operación que los genera se confirma, y la solicitud no espera al servidor SMTP.
+ * {@link EmailDeliveryWorker} los envía en segundo plano; al confirmarse la transacción se le avisa para que no
+ * espere a su siguiente sondeo.
+ * <p>
+ * Los textos de los emails son plantillas de {@code lang/emails*.properties}; los usuarios no guardan un idioma
+ * preferido, por lo que se renderizan en el idioma configurado en {@code email.locale}.
+ * <p>
+ * Los argumentos marcados con {@link #secret(String)} no se escriben en la tabla: el contenido se guarda con un
+ * marcador y el valor se mantiene en memoria en {@link EmailSecrets} hasta el envío.
+ */
+@Service
+public class EmailOutboxService {
+
+    private final EmailOutboxJdbcRepository repository;
+    private final EmailDeliveryWorker worker;
+    private final EmailSecrets secrets;
+    private final MessageTemplates templates;
+    private final Locale locale;
+
+    EmailOutboxService(
+            EmailOutboxJdbcRepository repository,
+            EmailDeliveryWorker worker,
+            EmailSecrets secrets,
+            MessageTemplates templates,
+            @Value("${email.locale:es}") Locale locale
+    ) {
+        this.repository = repository;
+        this.worker = worker;
+        this.secrets = secrets;
+        this.templates = templates;
+        this.locale = locale;
+    }
+
+    /**
+     * Marca un argumento de plantilla como secreto para que no se guarde en la bandeja de salida.
+     */
+    public static Secret secret(String value) {
+        return new Secret(value);
+    }
+
+    /**
+     * Agrega a la bandeja de salida un email a partir de las plantillas {@code email.<name>.subject} y
+     * {@code email.<name>.body}.
+     *
+     * @param to   Destinatario.
+     * @param name Nombre de la plantilla.
+     * @param args Argumentos del contenido.
+     */
+    public void enqueueTemplate(String to, String name, Object... args) {
+        enqueueAll(List.of(fromTemplate(to, name, args)));
+    }
+
+    /**
+     * Renderiza un email a partir de sus plantillas, para agregarlo con {@link #enqueueAll(List)}.
+     */
+    public NewEmail fromTemplate(String to, String name, Object... args) {
+        var subject = templates.render("email." + name + ".subject", locale);
+
+        List<String> values = null;
+        for (int i = 0; i < args.length; i++) {
+            if (!(args[i] instanceof Secret secret)) continue;
+            if (values == null) {
+                values = new ArrayList<>();
+                args = args.clone();
+            }
+            args[i] = EmailSecrets.placeholder(values.size());
+            values.add(secret.value());
+        }
+
+        var body = templates.render("email." + name + ".body", locale, args);
+        if (values == null) return new NewEmail(to, subject, body);
+        return new NewEmail(to, subject, body, secrets.hold(values), secrets.node());
+    }
+
+    /**
+     * Renderiza un fragmento o valor de los emails, como {@code email.value.yes}.
+     */
+    public String text(String code, Object... args) {
+        return templates.render(code, locale, args);
+    }
+
+    /**
+     * Agrega un email de texto plano a la bandeja de salida.
+     *
+     * @param to      Destinatario.
+     * @param subject Asunto.
+     * @param text    Contenido.
+     */
+    public void enqueue(String to, String subject, String text) {
+        enqueueAll(List.of(new NewEmail(to, subject, text)));
+    }
+
+    /**
+     * Agrega varios emails a la bandeja de salida con una sola inserción por lotes.
+     */
+    public void enqueueAll(List<NewEmail> emails) {
+        if (emails.isEmpty()) return;
+        repository.insertAll(emails);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            worker.wakeUp();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                worker.wakeUp();
+            }
+        });
+    }
+
+    /**
+     * Argumento de plantilla que no se guarda en la bandeja de salida.
+     */
+    public record Secret(String value) {
+
+        @Override
+        public String toString() {
+            return "****";
+        }
+    }
+}
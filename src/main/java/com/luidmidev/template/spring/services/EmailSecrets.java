@@ -0,0 +1,80 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.utils.TimingWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Valores secretos de los emails pendientes (códigos de recuperación, contraseñas), guardados solo en memoria.
+ * <p>
+ * La bandeja de salida guarda el contenido con marcadores en lugar de los secretos y una referencia a esta instancia;
+ * los secretos se insertan al momento del envío. Solo la instancia que generó el email lo puede enviar, por lo que
+ * las filas con secretos se asocian al identificador de la instancia. Si la instancia se reinicia o el secreto vence
+ * antes del envío, el email se descarta.
+ */
+@Component
+class EmailSecrets {
+
+    private final String node = UUID.randomUUID().toString();
+    private final TimingWheel<String, List<String>> secrets = new TimingWheel<>(1000);
+    private final long ttlMillis;
+
+    EmailSecrets(@Value("${email.outbox.secret-ttl-minutes:${security.password-reset.ttl-minutes:30}}") long ttlMinutes) {
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+    }
+
+    /**
+     * Identificador de esta instancia, con el que se marcan las filas que solo ella puede enviar.
+     */
+    String node() {
+        return node;
+    }
+
+    long ttlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * Guarda los secretos de un email.
+     *
+     * @return Referencia con la que se recuperan al enviar.
+     */
+    String hold(List<String> values) {
+        var reference = UUID.randomUUID().toString();
+        secrets.put(reference, List.copyOf(values), ttlMillis);
+        return reference;
+    }
+
+    /**
+     * Inserta los secretos de la referencia en el texto.
+     *
+     * @return El texto con los secretos, o {@code null} si la referencia venció o no pertenece a esta instancia.
+     */
+    String reveal(String reference, String text) {
+        var values = secrets.get(reference);
+        if (values == null) return null;
+        for (int i = 0; i < values.size(); i++) text = text.replace(placeholder(i), values.get(i));
+        return text;
+    }
+
+    void release(String reference) {
+        secrets.remove(reference);
+    }
+
+    /**
+     * Marcador que ocupa el lugar del secreto {@code index} en el contenido guardado.
+     */
+    static String placeholder(int index) {
+        return "{{secreto-" + index + "}}";
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    void expire() {
+        secrets.advance();
+    }
+}
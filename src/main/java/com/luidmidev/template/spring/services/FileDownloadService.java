@@ -0,0 +1,117 @@
+package com.luidmidev.template.spring.services;
+
+import com.waipersoft.store.FileStoreService.FileInfo;
+import com.waipersoft.store.targets.mongo.GridFSFileStoreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Descargas de los archivos guardados en GridFS sin cargarlos completos en memoria.
+ * <p>
+ * {@link GridFSFileStoreService#download(String)} devuelve el contenido del archivo como un arreglo de bytes. Aquí
+ * los datos del archivo se obtienen del almacén y el contenido se lee de GridFS fragmento a fragmento, copiándolo a
+ * la salida con un búfer de tamaño fijo, de modo que la memoria de cada descarga no depende del tamaño del archivo.
+ * <p>
+ * El bucket ({@code files.gridfs.bucket}, por defecto el de {@code spring.data.mongodb.gridfs.bucket}) y el campo
+ * del archivo de GridFS que guarda el ID del almacén ({@code files.gridfs.id-field}) deben coincidir con los que usa
+ * el almacén. Si el archivo no se encuentra así pero el almacén sí lo tiene, la configuración no coincide y la
+ * descarga falla en lugar de cargar el archivo completo en memoria.
+ */
+@Service
+public class FileDownloadService {
+
+    private final GridFSFileStoreService fileStoreService;
+    private final GridFsOperations gridFs;
+    private final String idField;
+    private final int bufferSize;
+
+    @Autowired
+    FileDownloadService(
+            GridFSFileStoreService fileStoreService,
+            MongoDatabaseFactory mongoDatabaseFactory,
+            MongoConverter mongoConverter,
+            @Value("${files.gridfs.bucket:${spring.data.mongodb.gridfs.bucket:fs}}") String bucket,
+            @Value("${files.gridfs.id-field:_id}") String idField,
+            @Value("${files.download.buffer-size:16384}") int bufferSize
+    ) {
+        this(fileStoreService, new GridFsTemplate(mongoDatabaseFactory, mongoConverter, bucket), idField, bufferSize);
+    }
+
+    FileDownloadService(GridFSFileStoreService fileStoreService, GridFsOperations gridFs, String idField, int bufferSize) {
+        this.fileStoreService = fileStoreService;
+        this.gridFs = gridFs;
+        this.idField = idField;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Abre un archivo para descargarlo. El contenido no se lee hasta llamar a {@link #transfer(FileDownload, OutputStream)}
+     * o {@link FileDownload#openStream()}.
+     *
+     * @param id ID del archivo en el almacén.
+     * @return El archivo, o vacío si ya no existe.
+     * @throws IllegalStateException Si el almacén tiene el archivo pero no se encuentra en el bucket y campo configurados.
+     */
+    public Optional<FileDownload> open(String id) throws IOException {
+        var file = gridFs.findOne(query(where(idField).is(id)));
+        var info = fileStoreService.info(id);
+        if (info == null) return Optional.empty();
+
+        if (file == null) {
+            throw new IllegalStateException("El archivo " + id + " existe en el almacén pero no se encontró en GridFS por " + idField + "; revise files.gridfs.bucket y files.gridfs.id-field");
+        }
+
+        var resource = gridFs.getResource(file);
+        return Optional.of(new FileDownload(info, file.getLength(), resource::getInputStream));
+    }
+
+    /**
+     * Copia el contenido del archivo a la salida.
+     */
+    public void transfer(FileDownload download, OutputStream output) throws IOException {
+        try (var input = download.openStream()) {
+            var buffer = new byte[bufferSize];
+            int read;
+            while ((read = input.read(buffer)) != -1) output.write(buffer, 0, read);
+        }
+        output.flush();
+    }
+
+    /**
+     * Archivo abierto para descargar.
+     *
+     * @param info    Datos del archivo en el almacén.
+     * @param length  Tamaño del contenido en bytes.
+     * @param content Contenido del archivo.
+     */
+    public record FileDownload(FileInfo info, long length, Content content) {
+
+        /**
+         * Abre el contenido del archivo. GridFS lo entrega por fragmentos a medida que se lee.
+         */
+        public InputStream openStream() throws IOException {
+            return content.open();
+        }
+    }
+
+    /**
+     * Origen del contenido de un archivo.
+     */
+    @FunctionalInterface
+    public interface Content {
+        InputStream open() throws IOException;
+    }
+}
@@ -0,0 +1,53 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.utils.TimingWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Códigos de recuperación en memoria sobre una {@link TimingWheel}: guardar, consumir y liberar un código vencido
+ * cuestan O(1) y no acceden a la base de datos. Los códigos no sobreviven a un reinicio ni se comparten entre
+ * réplicas.
+ */
+@Component
+@ConditionalOnProperty(name = "security.password-reset.store", havingValue = "memory")
+public class InMemoryRecoveryCodeStore implements RecoveryCodeStore {
+
+    private final TimingWheel<String, String> codes;
+    private final RecoveryCodeHasher hasher;
+    private final long ttlMillis;
+
+    InMemoryRecoveryCodeStore(
+            RecoveryCodeHasher hasher,
+            @Value("${security.password-reset.ttl-minutes:30}") long ttlMinutes,
+            @Value("${security.password-reset.tick-millis:1000}") long tickMillis
+    ) {
+        this.hasher = hasher;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.codes = new TimingWheel<>(tickMillis);
+    }
+
+    @Override
+    public boolean save(String code, String email) {
+        return codes.putIfAbsent(hasher.hash(code), email, ttlMillis);
+    }
+
+    @Override
+    public Optional<String> consume(String code) {
+        return Optional.ofNullable(codes.remove(hasher.hash(code)));
+    }
+
+    /**
+     * Avanza la rueda para liberar la memoria de los códigos vencidos; las búsquedas ya los descartan aunque la rueda
+     * no haya avanzado.
+     */
+    @Scheduled(fixedDelayString = "${security.password-reset.tick-millis:1000}")
+    void expire() {
+        codes.advance();
+    }
+}
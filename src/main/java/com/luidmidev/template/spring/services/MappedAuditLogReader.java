@@ -0,0 +1,142 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.dto.AuditEntry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.luidmidev.template.spring.services.AuditRecordLayout.CAPACITY_OFFSET;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.HEADER_SIZE;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.RECORD_SIZE;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.SEGMENT_MAGIC;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.isCommitted;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.offsetOf;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.read;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.timeAt;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.toMicros;
+
+/**
+ * Lector de los segmentos escritos por {@link MappedFileAuditSink}.
+ * <p>
+ * Los segmentos se recorren en orden de creación, que es el orden del nombre de archivo. La lectura por rango de
+ * fechas usa el instante inicial codificado en el nombre de cada segmento para descartar segmentos completos y una
+ * búsqueda binaria sobre los registros, cuyas fechas son no decrecientes, para ubicar el primero del rango. Los
+ * registros sin marca de confirmación, como los del segmento activo que aún no se han escrito, se ignoran.
+ */
+public class MappedAuditLogReader {
+
+    static final String SEGMENT_PREFIX = "audit-";
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+
+    public MappedAuditLogReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Recorre todos los registros confirmados, del más antiguo al más reciente.
+     */
+    public void scan(Consumer<AuditEntry> consumer) throws IOException {
+        scan(null, null, consumer);
+    }
+
+    /**
+     * Recorre los registros confirmados de un rango de fechas, del más antiguo al más reciente.
+     *
+     * @param from     Inicio del rango, inclusivo, o {@code null}.
+     * @param to       Fin del rango, exclusivo, o {@code null}.
+     * @param consumer Receptor de cada registro.
+     */
+    public void scan(LocalDateTime from, LocalDateTime to, Consumer<AuditEntry> consumer) throws IOException {
+        var fromMicros = from == null ? Long.MIN_VALUE : toMicros(from);
+        var toMicros = to == null ? Long.MAX_VALUE : toMicros(to);
+
+        var segments = segments(directory);
+        for (int i = 0; i < segments.size(); i++) {
+            // Un segmento solo contiene registros anteriores al inicio del siguiente
+            if (i + 1 < segments.size() && startOf(segments.get(i + 1)) <= fromMicros) continue;
+            if (startOf(segments.get(i)) >= toMicros) break;
+            scanSegment(segments.get(i), fromMicros, toMicros, consumer);
+        }
+    }
+
+    private static void scanSegment(Path segment, long fromMicros, long toMicros, Consumer<AuditEntry> consumer) throws IOException {
+        try (var channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) return;
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != SEGMENT_MAGIC) return;
+
+            var count = committedCount(buffer);
+            var index = fromMicros == Long.MIN_VALUE ? 0 : firstAtOrAfter(buffer, count, fromMicros);
+            for (; index < count; index++) {
+                var position = (int) offsetOf(index);
+                if (timeAt(buffer, position) >= toMicros) return;
+                consumer.accept(read(buffer, position));
+            }
+        }
+    }
+
+    /**
+     * Cuenta los registros confirmados. Los registros se confirman en orden, por lo que forman un prefijo del
+     * segmento.
+     */
+    static int committedCount(ByteBuffer buffer) {
+        int low = 0;
+        int high = capacityOf(buffer);
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (isCommitted(buffer, (int) offsetOf(middle))) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    static int capacityOf(ByteBuffer buffer) {
+        return (int) Math.min(buffer.getInt(CAPACITY_OFFSET), (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE);
+    }
+
+    private static int firstAtOrAfter(ByteBuffer buffer, int count, long micros) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (timeAt(buffer, (int) offsetOf(middle)) < micros) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Segmentos del directorio ordenados por su instante inicial.
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return List.of();
+        var segments = new ArrayList<Path>();
+        try (var files = Files.list(directory)) {
+            files.filter(file -> {
+                var name = file.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).forEach(segments::add);
+        }
+        segments.sort((a, b) -> Long.compare(startOf(a), startOf(b)));
+        return segments;
+    }
+
+    static long startOf(Path segment) {
+        var name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static String nameOf(long startMicros) {
+        return SEGMENT_PREFIX + String.format("%020d", startMicros) + SEGMENT_SUFFIX;
+    }
+}
@@ -0,0 +1,271 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.dto.AuditEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.luidmidev.template.spring.services.AuditRecordLayout.CAPACITY_OFFSET;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.HEADER_SIZE;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.RECORD_SIZE;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.RECORD_SIZE_OFFSET;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.SEGMENT_MAGIC;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.START_OFFSET;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.VERSION;
+import static com.luidmidev.template.spring.services.AuditRecordLayout.VERSION_OFFSET;
+
+/**
+ * Registro de auditoría de solo anexado sobre segmentos de archivo mapeados en memoria.
+ * <p>
+ * Cada segmento se reserva con su tamaño final al crearse y se mapea completo, de modo que anexar un registro es
+ * copiar {@value AuditRecordLayout#RECORD_SIZE} bytes en memoria, sin llamadas al sistema ni acceso a la base de
+ * datos. El sistema operativo escribe las páginas modificadas en disco; además, cada cierto intervalo se fuerza la
+ * sincronización ({@code audit.mapped.fsync-interval-millis}, 0 para sincronizar en cada registro). Se abre un
+ * segmento nuevo al llenarse el actual o al cumplirse su intervalo de rotación.
+ * <p>
+ * La fecha de cada registro es la de la entrada, salvo que sea anterior a la del último registro escrito, en cuyo
+ * caso se usa esta última: así las fechas de un segmento son no decrecientes y {@link MappedAuditLogReader} puede
+ * buscarlas por bisección. Al iniciar se reanuda el último segmento a partir del primer registro sin confirmar.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "audit.sink", havingValue = "mapped")
+public class MappedFileAuditSink implements AuditSink {
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final long rollIntervalMicros;
+    private final long fsyncIntervalMillis;
+    private final int maxSegments;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rolled = new LongAdder();
+    private final LongAdder forced = new LongAdder();
+
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private ScheduledExecutorService syncExecutor;
+
+    private Path segment;
+    private MappedByteBuffer buffer;
+    private long segmentStart;
+    private int capacity;
+    private int index;
+    private long lastMicros;
+    private volatile boolean dirty;
+
+    MappedFileAuditSink(
+            @Value("${audit.mapped.directory:audit-log}") String directory,
+            @Value("${audit.mapped.segment-records:65536}") int segmentRecords,
+            @Value("${audit.mapped.roll-interval-millis:86400000}") long rollIntervalMillis,
+            @Value("${audit.mapped.fsync-interval-millis:1000}") long fsyncIntervalMillis,
+            @Value("${audit.mapped.max-segments:0}") int maxSegments
+    ) {
+        this.directory = Path.of(directory);
+        this.segmentRecords = segmentRecords;
+        this.rollIntervalMicros = TimeUnit.MILLISECONDS.toMicros(rollIntervalMillis);
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.maxSegments = maxSegments;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(directory);
+
+        // Dos procesos escribiendo en el mismo directorio se sobrescribirían los registros
+        lockChannel = FileChannel.open(directory.resolve(".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("El directorio de auditoría " + directory.toAbsolutePath() + " está en uso por otro proceso");
+        }
+
+        var segments = MappedAuditLogReader.segments(directory);
+        if (segments.isEmpty() || !resume(segments.get(segments.size() - 1))) {
+            roll(AuditRecordLayout.toMicros(LocalDateTime.now()));
+        }
+
+        if (fsyncIntervalMillis > 0) {
+            syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "audit-log-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncExecutor.scheduleWithFixedDelay(this::sync, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        log.info("Registro de auditoría mapeado en {}: segmento {} en el registro {} de {}, sincronización cada {} ms",
+                directory.toAbsolutePath(), segment.getFileName(), index, capacity, fsyncIntervalMillis);
+    }
+
+    @Override
+    public synchronized void append(AuditEntry entry) {
+        try {
+            var micros = Math.max(lastMicros, AuditRecordLayout.toMicros(entry.getDatetime() == null ? LocalDateTime.now() : entry.getDatetime()));
+            if (index >= capacity || micros - segmentStart >= rollIntervalMicros) {
+                roll(micros);
+                micros = Math.max(micros, segmentStart);
+            }
+
+            AuditRecordLayout.write(buffer, (int) AuditRecordLayout.offsetOf(index), micros, entry);
+            index++;
+            lastMicros = micros;
+            appended.increment();
+
+            if (fsyncIntervalMillis <= 0) {
+                buffer.force();
+                forced.increment();
+            } else {
+                dirty = true;
+            }
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            log.error("No se pudo escribir el registro de auditoría en {}", segment, e);
+        }
+    }
+
+    @Override
+    public synchronized void appendAll(List<AuditEntry> entries) {
+        for (var entry : entries) append(entry);
+    }
+
+    /**
+     * Lector sobre el directorio de este registro, que también ve los registros del segmento activo.
+     */
+    public MappedAuditLogReader reader() {
+        return new MappedAuditLogReader(directory);
+    }
+
+    @Override
+    public MappedSinkStats stats() {
+        synchronized (this) {
+            return new MappedSinkStats(segment.getFileName().toString(), index, capacity, appended.sum(), failed.sum(), rolled.sum(), forced.sum());
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (syncExecutor != null) syncExecutor.shutdownNow();
+        synchronized (this) {
+            buffer.force();
+        }
+        lock.release();
+        lockChannel.close();
+        log.info("Registro de auditoría mapeado cerrado en el registro {} de {}", index, segment.getFileName());
+    }
+
+    private void sync() {
+        if (!dirty) return;
+        MappedByteBuffer current;
+        synchronized (this) {
+            dirty = false;
+            current = buffer;
+        }
+        // Se sincroniza fuera del bloqueo para no detener las escrituras mientras el disco responde
+        current.force();
+        forced.increment();
+    }
+
+    /**
+     * Reanuda un segmento existente a partir de su primer registro sin confirmar.
+     *
+     * @return {@code false} si el segmento no es válido o no tiene espacio libre.
+     */
+    private boolean resume(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE) return false;
+            var mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (mapped.getInt(0) != SEGMENT_MAGIC || mapped.getInt(RECORD_SIZE_OFFSET) != RECORD_SIZE) return false;
+
+            var count = MappedAuditLogReader.committedCount(mapped);
+            if (count >= MappedAuditLogReader.capacityOf(mapped)) return false;
+
+            // Un registro a medio escribir antes de una caída no tiene marca de confirmación; se sobrescribe
+            var position = (int) AuditRecordLayout.offsetOf(count);
+            mapped.put(position, new byte[RECORD_SIZE]);
+
+            segment = path;
+            buffer = mapped;
+            segmentStart = mapped.getLong(START_OFFSET);
+            capacity = MappedAuditLogReader.capacityOf(mapped);
+            index = count;
+            lastMicros = count == 0 ? segmentStart : AuditRecordLayout.timeAt(mapped, (int) AuditRecordLayout.offsetOf(count - 1));
+            return true;
+        }
+    }
+
+    /**
+     * Cierra el segmento actual y crea uno nuevo con su tamaño final reservado.
+     *
+     * @param micros Fecha del primer registro del segmento nuevo.
+     */
+    private void roll(long micros) throws IOException {
+        if (buffer != null) buffer.force();
+
+        // El inicio de cada segmento es estrictamente posterior a todos los registros del anterior
+        var start = Math.max(micros, segment == null ? micros : lastMicros + 1);
+        var path = directory.resolve(MappedAuditLogReader.nameOf(start));
+        var size = HEADER_SIZE + (long) segmentRecords * RECORD_SIZE;
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            mapped.putInt(VERSION_OFFSET, VERSION);
+            mapped.putInt(RECORD_SIZE_OFFSET, RECORD_SIZE);
+            mapped.putInt(CAPACITY_OFFSET, segmentRecords);
+            mapped.putLong(START_OFFSET, start);
+            mapped.putInt(0, SEGMENT_MAGIC);
+            mapped.force();
+
+            segment = path;
+            buffer = mapped;
+            segmentStart = start;
+            capacity = segmentRecords;
+            index = 0;
+            lastMicros = start;
+        }
+
+        rolled.increment();
+        deleteOldSegments();
+    }
+
+    private void deleteOldSegments() throws IOException {
+        if (maxSegments <= 0) return;
+        var segments = MappedAuditLogReader.segments(directory);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+            log.info("Segmento de auditoría eliminado por retención: {}", segments.get(i).getFileName());
+        }
+    }
+
+    /**
+     * Métricas del registro de auditoría mapeado.
+     *
+     * @param segment  Segmento activo.
+     * @param index    Registros escritos en el segmento activo.
+     * @param capacity Capacidad del segmento activo.
+     * @param appended Registros escritos desde el inicio.
+     * @param failed   Registros que no se pudieron escribir.
+     * @param rolled   Segmentos creados desde el inicio.
+     * @param forced   Sincronizaciones forzadas a disco.
+     */
+    public record MappedSinkStats(String segment, int index, int capacity, long appended, long failed, long rolled, long forced) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.luidmidev.template.spring.services;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * Calcula el HMAC-SHA256 de los códigos de recuperación antes de almacenarlos.
+ * <p>
+ * Los códigos son numéricos y cortos, por lo que un hash sin clave se invierte probando todas las combinaciones;
+ * con la clave {@code security.password-reset.hash-key} una copia de la tabla no revela los códigos. Sin clave
+ * configurada se genera una aleatoria al iniciar y los códigos pendientes dejan de ser válidos tras un reinicio.
+ */
+@Log4j2
+@Component
+public class RecoveryCodeHasher {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    RecoveryCodeHasher(@Value("${security.password-reset.hash-key:}") String hashKey) {
+        byte[] material;
+        if (hashKey.isBlank()) {
+            log.warn("No se ha configurado security.password-reset.hash-key, se generará una clave aleatoria y los códigos de recuperación no sobrevivirán a un reinicio");
+            material = new byte[32];
+            new SecureRandom().nextBytes(material);
+        } else {
+            material = hashKey.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(material, ALGORITHM);
+    }
+
+    String hash(String code) {
+        try {
+            var mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return HexFormat.of().formatHex(mac.doFinal(code.trim().getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " no está disponible", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.luidmidev.template.spring.services;
+
+import java.util.Optional;
+
+/**
+ * Almacén de los códigos de recuperación de contraseña.
+ * <p>
+ * La implementación se elige con {@code security.password-reset.store}: {@code database} (por defecto) guarda los
+ * códigos en la tabla {@code token_forget_password} y sobrevive a reinicios y se comparte entre réplicas;
+ * {@code memory} los mantiene en una rueda de tiempo en memoria, sin acceso a la base de datos, y solo es adecuada
+ * para una única instancia. En ambos casos se guarda el HMAC del código, nunca el código, y los códigos vencen tras
+ * {@code security.password-reset.ttl-minutes}.
+ */
+public interface RecoveryCodeStore {
+
+    /**
+     * Guarda un código asociado a un email.
+     *
+     * @return {@code false} si ya existe un código vigente igual; el llamador debe generar otro.
+     */
+    boolean save(String code, String email);
+
+    /**
+     * Obtiene el email asociado a un código vigente y lo invalida, de modo que cada código se usa una sola vez.
+     *
+     * @return El email, o vacío si el código no existe o venció.
+     */
+    Optional<String> consume(String code);
+}
@@ -0,0 +1,109 @@
+package com.luidmidev.template.spring.services;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Mantiene las particiones mensuales de {@code session_audit} en instalaciones que aplicaron
+ * {@code db/session_audit_partitioning.sql}.
+ * <p>
+ * Crea por adelantado las particiones de los próximos meses dividiendo la partición {@code pmax}, de modo que
+ * los registros nuevos nunca caen en ella. Las particiones se crean mes a mes a partir del límite de la última
+ * partición existente, de modo que los meses entre las particiones iniciales del script y la activación tienen
+ * cada uno su partición en lugar de acumularse en la primera que se crea. Solo se activa con
+ * {@code audit.partitioning.enabled=true}.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "audit.partitioning.enabled", havingValue = "true")
+public class SessionAuditPartitionMaintainer {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final String SELECT_PARTITIONS = "select partition_name, partition_description from information_schema.partitions where table_schema = database() and table_name = 'session_audit' and partition_name is not null order by partition_ordinal_position";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${audit.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    SessionAuditPartitionMaintainer(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        createPartitions();
+    }
+
+    /**
+     * Crea las particiones que faltan hasta los meses configurados por delante del actual.
+     */
+    @Scheduled(cron = "${audit.partitioning.cron:0 0 3 * * *}")
+    public void createPartitions() {
+        var existing = new HashSet<String>();
+        var boundaries = new ArrayList<LocalDate>();
+        jdbcTemplate.query(SELECT_PARTITIONS, rs -> {
+            existing.add(rs.getString("partition_name"));
+            var boundary = parseBoundary(rs.getString("partition_description"));
+            if (boundary != null) boundaries.add(boundary);
+        });
+
+        if (!existing.contains("pmax")) {
+            log.warn("session_audit no está particionada o no tiene la partición pmax, ejecute db/session_audit_partitioning.sql");
+            return;
+        }
+
+        for (var month : missingMonths(boundaries, YearMonth.now(), monthsAhead)) {
+            var name = month.format(PARTITION_NAME);
+            if (existing.contains(name)) continue;
+
+            jdbcTemplate.execute("alter table session_audit reorganize partition pmax into (" +
+                    "partition " + name + " values less than ('" + month.plusMonths(1).atDay(1) + "'), " +
+                    "partition pmax values less than (maxvalue))");
+            log.info("Partición {} de session_audit creada", name);
+        }
+    }
+
+    /**
+     * Meses cuyas particiones faltan, desde el límite de la última partición (o el mes actual si no hay ninguna)
+     * hasta los meses configurados por delante del actual.
+     *
+     * @param boundaries  Límites superiores de las particiones existentes, sin {@code pmax}.
+     * @param current     Mes actual.
+     * @param monthsAhead Meses por delante del actual.
+     */
+    static List<YearMonth> missingMonths(List<LocalDate> boundaries, YearMonth current, int monthsAhead) {
+        var month = boundaries.stream().max(LocalDate::compareTo).map(YearMonth::from).orElse(current);
+        var until = current.plusMonths(monthsAhead);
+
+        var months = new ArrayList<YearMonth>();
+        for (; !month.isAfter(until); month = month.plusMonths(1)) months.add(month);
+        return months;
+    }
+
+    /**
+     * Convierte el límite de una partición ({@code '2026-04-01'} o {@code '2026-04-01 00:00:00'}) en fecha, o
+     * {@code null} para {@code MAXVALUE}.
+     */
+    static LocalDate parseBoundary(String description) {
+        if (description == null) return null;
+        var value = description.replace("'", "").trim();
+        if (value.length() < 10 || !Character.isDigit(value.charAt(0))) return null;
+        return LocalDate.parse(value.substring(0, 10));
+    }
+}
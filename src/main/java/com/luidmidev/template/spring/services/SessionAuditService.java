@@ -1,26 +1,170 @@
 package com.luidmidev.template.spring.services;
 
 
-import com.luidmidev.template.spring.models.SessionAudit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.luidmidev.template.spring.dto.AuditEntry;
+import com.luidmidev.template.spring.dto.AuditPage;
+import com.luidmidev.template.spring.exceptions.ClientException;
+import com.luidmidev.template.spring.models.AuditAction;
 import com.luidmidev.template.spring.models.User;
-import com.luidmidev.template.spring.repositories.SessionAuditRepository;
+import com.luidmidev.template.spring.repositories.SessionAuditJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
 
 @Service
 public class SessionAuditService {
 
-    private final SessionAuditRepository repository;
+    private final AuditSink sink;
+    private final SessionAuditJdbcRepository jdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${audits.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${audits.page.max-size:500}")
+    private int maxPageSize;
+
+    public SessionAuditService(AuditSink sink, SessionAuditJdbcRepository jdbcRepository, ObjectMapper objectMapper) {
+        this.sink = sink;
+        this.jdbcRepository = jdbcRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registra una acción de un usuario. La IP y la fecha se toman en el momento de la llamada y el registro se
+     * entrega al destino de auditoría configurado; si hay una transacción activa, solo se entrega cuando esta se
+     * confirma.
+     *
+     * @param user        Usuario que realiza la acción.
+     * @param action      Código de la acción.
+     * @param description Descripción de la acción.
+     */
+    public void saveActionUser(User user, AuditAction action, String description) {
+        saveAll(List.of(new AuditEntry(null, LocalDateTime.now(), user.getId(), user.getUsername(), currentIp(), action.name(), description)));
+    }
+
+    /**
+     * Registra varias acciones ya construidas, con la misma semántica transaccional que
+     * {@link #saveActionUser(User, AuditAction, String)}.
+     *
+     * @param entries Registros con la fecha, IP, identificador de usuario, acción y descripción asignados.
+     */
+    public void saveAll(List<AuditEntry> entries) {
+        if (entries.isEmpty()) return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sink.appendAll(entries);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sink.appendAll(entries);
+            }
+        });
+    }
+
+    /**
+     * Lee los registros del registro de auditoría mapeado en memoria en formato NDJSON, del más antiguo al más
+     * reciente. Solo está disponible con {@code audit.sink=mapped}.
+     *
+     * @param from   Inicio del rango, inclusivo, o {@code null}.
+     * @param to     Fin del rango, exclusivo, o {@code null}.
+     * @param userId Identificador del usuario, o {@code null} para todos.
+     * @param type   Prefijo de la descripción (tipo de acción), o {@code null}.
+     * @param output Flujo de salida donde se escriben los registros.
+     * @throws IOException Si ocurre un error al leer los segmentos o al escribir.
+     */
+    public void streamLog(LocalDateTime from, LocalDateTime to, Long userId, String type, OutputStream output) throws IOException {
+        var reader = mappedLog().reader();
+        var prefix = type == null || type.isBlank() ? null : type.trim();
+
+        try (var writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(output)) {
+            reader.scan(from, to, entry -> {
+                if (userId != null && !userId.equals(entry.getUserId())) return;
+                if (prefix != null && !entry.getDescription().startsWith(prefix)) return;
+                try {
+                    writer.write(entry);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Obtiene el registro de auditoría mapeado antes de empezar a escribir la respuesta.
+     */
+    public MappedFileAuditSink mappedLog() {
+        if (sink instanceof MappedFileAuditSink mapped) return mapped;
+        throw new ClientException("El registro de auditoría en archivos no está habilitado", HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Obtiene una página de registros de auditoría, del más reciente al más antiguo, paginada por cursor.
+     * Los registros sin fecha no tienen posición en el orden del cursor y no se incluyen.
+     *
+     * @param userId Identificador del usuario, o {@code null} para todos.
+     * @param from   Inicio del rango, inclusivo, o {@code null}.
+     * @param to     Fin del rango, exclusivo, o {@code null}.
+     * @param type   Acción de los registros, o {@code null} para todas.
+     * @param after  Cursor de la página anterior ({@code nextCursor}), o {@code null} para la primera página.
+     * @param size   Tamaño de la página; se limita al máximo configurado.
+     * @return La página de registros y el cursor de la siguiente.
+     */
+    public AuditPage find(Long userId, LocalDateTime from, LocalDateTime to, AuditAction type, String after, Integer size) {
+
+        var pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+
+        LocalDateTime afterDatetime = null;
+        Long afterId = null;
+        if (after != null && !after.isBlank()) {
+            try {
+                var cursor = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8).split("\\|", 2);
+                // Las páginas no incluyen registros sin fecha, por lo que un cursor sin fecha no es válido
+                afterDatetime = LocalDateTime.parse(cursor[0]);
+                afterId = Long.parseLong(cursor[1]);
+            } catch (RuntimeException e) {
+                throw new ClientException("Cursor de paginación inválido");
+            }
+        }
+
+        var items = jdbcRepository.findPage(userId, from, to, type, afterDatetime, afterId, pageSize);
+
+        String nextCursor = null;
+        if (items.size() == pageSize) {
+            var last = items.get(items.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString((last.getDatetime() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
 
-    public SessionAuditService(SessionAuditRepository repository) {
-        this.repository = repository;
+        return new AuditPage(items, nextCursor);
     }
 
-    public void saveActionUser(User user, String description) {
-        var audit = SessionAudit.builder()
-                .user(user)
-                .description(description)
-                .build();
-        repository.save(audit);
+    private static String currentIp() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest().getRemoteAddr();
+        }
+        return null;
     }
 
 }
@@ -0,0 +1,219 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.dto.AuditEntry;
+import com.luidmidev.template.spring.repositories.SessionAuditJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escritor asíncrono de la auditoría de sesiones.
+ * <p>
+ * Los registros se encolan en un búfer circular acotado y un hilo en segundo plano los inserta en lotes JDBC,
+ * cuando se acumula un lote completo o cuando pasa el intervalo configurado. Así el inicio de sesión y el
+ * registro no esperan a la inserción. La política de desbordamiento define qué ocurre cuando el búfer está
+ * lleno, y al cerrar la aplicación se escriben los registros pendientes.
+ * <p>
+ * Cada lote se inserta en una transacción propia. Los registros llegan después del commit de la transacción que
+ * los generó, y cuando se escriben en el hilo que llama (política {@link OverflowPolicy#CALLER_RUNS} o escritor
+ * detenido) ese hilo todavía tiene la conexión de la transacción terminada; sin una transacción nueva la inserción
+ * quedaría en esa conexión y no se confirmaría.
+ * <p>
+ * Es el destino de auditoría por defecto ({@code audit.sink=jdbc}).
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "audit.sink", havingValue = "jdbc", matchIfMissing = true)
+public class SessionAuditWriter implements AuditSink {
+
+    /**
+     * Qué hacer con un registro cuando el búfer está lleno.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Espera a que haya espacio, hasta el tiempo de espera configurado, y luego descarta el registro.
+         */
+        BLOCK,
+        /**
+         * Descarta el registro nuevo.
+         */
+        DROP_NEWEST,
+        /**
+         * Descarta el registro más antiguo del búfer para dejar espacio al nuevo.
+         */
+        DROP_OLDEST,
+        /**
+         * Inserta el registro de forma síncrona en el hilo que lo genera.
+         */
+        CALLER_RUNS
+    }
+
+    private final SessionAuditJdbcRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ArrayBlockingQueue<AuditEntry> buffer;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutMillis;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private Thread worker;
+    private volatile boolean running = true;
+
+    SessionAuditWriter(
+            SessionAuditJdbcRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${audit.writer.capacity:8192}") int capacity,
+            @Value("${audit.writer.batch-size:500}") int batchSize,
+            @Value("${audit.writer.flush-interval-millis:1000}") long flushIntervalMillis,
+            @Value("${audit.writer.overflow-policy:CALLER_RUNS}") OverflowPolicy overflowPolicy,
+            @Value("${audit.writer.offer-timeout-millis:100}") long offerTimeoutMillis
+    ) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        worker = new Thread(this::run, "session-audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Escritor de auditoría iniciado: búfer de {}, lotes de {}, cada {} ms, política {}", buffer.remainingCapacity(), batchSize, flushIntervalMillis, overflowPolicy);
+    }
+
+    /**
+     * Encola un registro de auditoría para su escritura en segundo plano.
+     *
+     * @param entry Registro con la descripción, IP, fecha e identificador de usuario ya asignados.
+     */
+    @Override
+    public void append(AuditEntry entry) {
+        if (!running) {
+            write(List.of(entry));
+            return;
+        }
+
+        if (buffer.offer(entry)) return;
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    if (!buffer.offer(entry, offerTimeoutMillis, TimeUnit.MILLISECONDS)) drop();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop();
+                }
+            }
+            case DROP_NEWEST -> drop();
+            case DROP_OLDEST -> {
+                while (!buffer.offer(entry)) {
+                    if (buffer.poll() != null) drop();
+                }
+            }
+            case CALLER_RUNS -> write(List.of(entry));
+        }
+    }
+
+    @Override
+    public AuditWriterStats stats() {
+        return new AuditWriterStats(buffer.size(), buffer.remainingCapacity(), written.sum(), dropped.sum(), failed.sum(), batches.sum());
+    }
+
+    /**
+     * Detiene el hilo de escritura y escribe los registros que quedan en el búfer.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(30));
+
+        var remaining = new ArrayList<AuditEntry>();
+        buffer.drainTo(remaining);
+        for (int i = 0; i < remaining.size(); i += batchSize) {
+            write(remaining.subList(i, Math.min(remaining.size(), i + batchSize)));
+        }
+        log.info("Escritor de auditoría detenido, {} registros pendientes escritos", remaining.size());
+    }
+
+    private void run() {
+        var batch = new ArrayList<AuditEntry>(batchSize);
+        while (running) {
+            try {
+                var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                var first = buffer.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                // Se completa el lote hasta llenarlo o hasta que vence el intervalo desde el primer registro
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    if (batch.size() >= batchSize) break;
+                    var remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    var next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Solo se interrumpe al cerrar; el lote en curso se escribe antes de salir
+            }
+
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditEntry> entries) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.insertAll(entries));
+            written.add(entries.size());
+            batches.increment();
+        } catch (Exception e) {
+            failed.add(entries.size());
+            log.error("No se pudieron escribir {} registros de auditoría", entries.size(), e);
+        }
+    }
+
+    private void drop() {
+        dropped.increment();
+        if (dropped.sum() % 1000 == 1) log.warn("Búfer de auditoría lleno, registros descartados: {}", dropped.sum());
+    }
+
+    /**
+     * Métricas del escritor de auditoría.
+     *
+     * @param queued    Registros en el búfer.
+     * @param remaining Espacio libre en el búfer.
+     * @param written   Registros escritos.
+     * @param dropped   Registros descartados por desbordamiento.
+     * @param failed    Registros que no se pudieron escribir.
+     * @param batches   Lotes escritos.
+     */
+    public record AuditWriterStats(int queued, int remaining, long written, long dropped, long failed, long batches) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.dto.AuditEntry;
+import com.luidmidev.template.spring.dto.UserSummary;
+import com.luidmidev.template.spring.exceptions.ClientException;
+import com.luidmidev.template.spring.repositories.SessionAuditJdbcRepository;
+import com.luidmidev.template.spring.repositories.UserJdbcRepository;
+import com.luidmidev.template.spring.utils.StreamingXlsxWriter;
+import com.luidmidev.template.spring.utils.StreamingXlsxWriter.Column;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Exportaciones de usuarios y de la auditoría de sesiones a hojas de cálculo XLSX.
+ * <p>
+ * Las filas se leen con un cursor de solo avance y se escriben con {@link StreamingXlsxWriter}, por lo que la
+ * memoria utilizada no depende del número de filas exportadas.
+ */
+@Service
+public class SpreadsheetExportService {
+
+    private static final List<Column<UserSummary>> USER_COLUMNS = List.of(
+            new Column<>("id", "ID", UserSummary::getId),
+            new Column<>("name", "Nombres", UserSummary::getName),
+            new Column<>("lastname", "Apellidos", UserSummary::getLastname),
+            new Column<>("username", "Usuario", UserSummary::getUsername),
+            new Column<>("email", "Email", UserSummary::getEmail),
+            new Column<>("cedula", "Cédula", UserSummary::getCedula),
+            new Column<>("enabled", "Habilitado", UserSummary::isEnabled),
+            new Column<>("authorities", "Roles", UserSummary::getAuthorities)
+    );
+
+    private static final List<Column<AuditEntry>> AUDIT_COLUMNS = List.of(
+            new Column<>("id", "ID", AuditEntry::getId),
+            new Column<>("datetime", "Fecha", AuditEntry::getDatetime),
+            new Column<>("userId", "ID de usuario", AuditEntry::getUserId),
+            new Column<>("username", "Usuario", AuditEntry::getUsername),
+            new Column<>("ip", "IP", AuditEntry::getIp),
+            new Column<>("description", "Descripción", AuditEntry::getDescription)
+    );
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final SessionAuditJdbcRepository auditJdbcRepository;
+
+    @Value("${exports.xlsx.rows-window:100}")
+    private int rowsWindow;
+
+    @Value("${exports.audits.default-days:30}")
+    private int defaultAuditDays;
+
+    @Value("${exports.audits.max-days:366}")
+    private int maxAuditDays;
+
+    SpreadsheetExportService(UserJdbcRepository userJdbcRepository, SessionAuditJdbcRepository auditJdbcRepository) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.auditJdbcRepository = auditJdbcRepository;
+    }
+
+    /**
+     * Comprueba las columnas solicitadas de la exportación de usuarios antes de empezar a escribir la respuesta.
+     *
+     * @param columns Nombres de las columnas, o {@code null} para todas.
+     * @return Las columnas seleccionadas.
+     */
+    public List<Column<UserSummary>> userColumns(List<String> columns) {
+        return StreamingXlsxWriter.select(USER_COLUMNS, columns);
+    }
+
+    /**
+     * Comprueba las columnas solicitadas de la exportación de auditoría antes de empezar a escribir la respuesta.
+     *
+     * @param columns Nombres de las columnas, o {@code null} para todas.
+     * @return Las columnas seleccionadas.
+     */
+    public List<Column<AuditEntry>> auditColumns(List<String> columns) {
+        return StreamingXlsxWriter.select(AUDIT_COLUMNS, columns);
+    }
+
+    /**
+     * Escribe todos los usuarios en una hoja de cálculo.
+     *
+     * @param columns Columnas a incluir, obtenidas con {@link #userColumns(List)}.
+     * @param output  Flujo de salida donde se escribe el documento.
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    public void exportUsers(List<Column<UserSummary>> columns, OutputStream output) throws IOException {
+        var includeAuthorities = columns.stream().anyMatch(column -> column.name().equals("authorities"));
+        try (var writer = new StreamingXlsxWriter<>("Usuarios", columns, rowsWindow)) {
+            userJdbcRepository.streamSummaries(includeAuthorities, writer::write);
+            writer.finish(output);
+        }
+    }
+
+    /**
+     * Escribe los registros de auditoría de un rango de fechas en una hoja de cálculo.
+     *
+     * @param columns Columnas a incluir, obtenidas con {@link #auditColumns(List)}.
+     * @param range   Rango de fechas, obtenido con {@link #auditRange(LocalDate, LocalDate)}.
+     * @param output  Flujo de salida donde se escribe el documento.
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    public void exportAudits(List<Column<AuditEntry>> columns, DateRange range, OutputStream output) throws IOException {
+        try (var writer = new StreamingXlsxWriter<>("Auditoría", columns, rowsWindow)) {
+            auditJdbcRepository.streamRange(range.from().atStartOfDay(), range.to().plusDays(1).atStartOfDay(), writer::write);
+            writer.finish(output);
+        }
+    }
+
+    /**
+     * Valida el rango de fechas de la exportación de auditoría. Sin fechas se exportan los últimos días configurados.
+     *
+     * @param from Primer día, inclusivo.
+     * @param to   Último día, inclusivo.
+     * @return El rango validado.
+     */
+    public DateRange auditRange(LocalDate from, LocalDate to) {
+        var end = to == null ? LocalDate.now() : to;
+        var start = from == null ? end.minusDays(defaultAuditDays - 1L) : from;
+
+        if (start.isAfter(end)) {
+            throw new ClientException("La fecha inicial debe ser anterior a la fecha final");
+        }
+
+        if (ChronoUnit.DAYS.between(start, end) >= maxAuditDays) {
+            throw new ClientException("El rango de fechas no puede superar " + maxAuditDays + " días");
+        }
+
+        return new DateRange(start, end);
+    }
+
+    /**
+     * Rango de días, ambos inclusivos.
+     */
+    public record DateRange(LocalDate from, LocalDate to) {
+    }
+}
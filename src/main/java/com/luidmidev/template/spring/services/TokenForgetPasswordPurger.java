@@ -0,0 +1,48 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.repositories.TokenForgetPasswordRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Elimina periódicamente los códigos de recuperación de contraseña expirados.
+ * <p>
+ * La eliminación se hace por rangos de {@code created_at} con sentencias {@code DELETE ... LIMIT}, cada una en su
+ * propia transacción, para no bloquear la tabla por mucho tiempo. Los códigos expirados que aún no se han eliminado
+ * no afectan a la recuperación: la consulta de códigos vigentes ya descarta los expirados.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "security.password-reset.store", havingValue = "database", matchIfMissing = true)
+public class TokenForgetPasswordPurger {
+
+    private final TokenForgetPasswordRepository repository;
+
+    @Value("${security.password-reset.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${security.password-reset.purge-batch-size:1000}")
+    private int batchSize;
+
+    TokenForgetPasswordPurger(TokenForgetPasswordRepository repository) {
+        this.repository = repository;
+    }
+
+    @Scheduled(fixedDelayString = "${security.password-reset.purge-interval-millis:600000}", initialDelayString = "${security.password-reset.purge-initial-delay-millis:60000}")
+    public void purge() {
+        var before = LocalDateTime.now().minusMinutes(ttlMinutes);
+        var total = 0;
+        int deleted;
+        do {
+            deleted = repository.deleteCreatedBefore(before, batchSize);
+            total += deleted;
+        } while (deleted >= batchSize);
+
+        if (total > 0) log.info("Códigos de recuperación expirados eliminados: {}", total);
+    }
+}
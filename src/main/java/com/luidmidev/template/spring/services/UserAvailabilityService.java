@@ -0,0 +1,179 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.dto.Availability;
+import com.luidmidev.template.spring.repositories.UserJdbcRepository;
+import com.luidmidev.template.spring.repositories.UserRepository;
+import com.luidmidev.template.spring.utils.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Comprueba si un nombre de usuario o un email ya están registrados.
+ * <p>
+ * Mantiene en memoria un filtro de Bloom con los nombres de usuario y emails normalizados. Si el filtro
+ * indica que un valor no existe se responde sin consultar la base de datos; en caso contrario se confirma con
+ * una única consulta sobre los índices únicos. El filtro se actualiza al registrar o modificar usuarios y se
+ * reconstruye periódicamente ({@code users.availability.rebuild-interval-millis}) para descartar los valores que
+ * dejaron de usarse.
+ * <p>
+ * Cada instancia tiene su propio filtro y solo agrega los valores que ella misma guarda; los registrados en otra
+ * réplica no se conocen aquí hasta la siguiente reconstrucción. Por eso una respuesta "disponible" es solo una
+ * indicación para el formulario y nunca autoriza a guardar: el registro, la actualización y la importación de
+ * usuarios dependen de los índices únicos de la base de datos y rechazan el duplicado al guardar.
+ */
+@Log4j2
+@Service
+public class UserAvailabilityService {
+
+    private final UserRepository repository;
+    private final UserJdbcRepository jdbcRepository;
+
+    @Value("${users.availability.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${users.availability.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile Filters filters;
+
+    private final LongAdder filtered = new LongAdder();
+    private final LongAdder probed = new LongAdder();
+
+    UserAvailabilityService(UserRepository repository, UserJdbcRepository jdbcRepository) {
+        this.repository = repository;
+        this.jdbcRepository = jdbcRepository;
+    }
+
+    /**
+     * Construye los filtros con los usuarios existentes y reemplaza los actuales. Los valores agregados mientras
+     * se construye el filtro nuevo también se agregan a él, por lo que nunca se pierde un valor registrado.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${users.availability.rebuild-interval-millis:900000}", initialDelayString = "${users.availability.rebuild-interval-millis:900000}")
+    public void rebuild() {
+        var insertions = Math.max(expectedInsertions, repository.count() * 2);
+        var rebuilt = new Filters(new BloomFilter(insertions, falsePositiveRate), new BloomFilter(insertions, falsePositiveRate), filters);
+
+        filters = rebuilt;
+        jdbcRepository.streamIdentities((username, email) -> {
+            if (username != null) rebuilt.usernames.put(normalize(username));
+            if (email != null) rebuilt.emails.put(normalize(email));
+        });
+        rebuilt.previous = null;
+
+        log.info("Filtros de disponibilidad reconstruidos para {} valores ({} bits, {} funciones hash)", insertions, rebuilt.usernames.bitCount(), rebuilt.usernames.hashFunctions());
+    }
+
+    /**
+     * Comprueba la disponibilidad de un nombre de usuario y un email en una sola consulta como máximo.
+     * <p>
+     * "No disponible" siempre se confirma con la base de datos. "Disponible" puede resolverse solo con el filtro y
+     * estar desactualizado respecto a otras réplicas, por lo que quien guarde el valor debe seguir manejando la
+     * violación del índice único.
+     *
+     * @param username  Nombre de usuario a comprobar, o {@code null} para omitirlo.
+     * @param email     Email a comprobar, o {@code null} para omitirlo.
+     * @param excludeId Identificador del usuario que se ignora en la comprobación (el propio usuario al actualizar),
+     *                  o {@code null}.
+     * @return La disponibilidad de cada valor consultado.
+     */
+    public Availability check(String username, String email, Long excludeId) {
+
+        var current = filters;
+        var normalizedUsername = username == null || username.isBlank() ? null : normalize(username);
+        var normalizedEmail = email == null || email.isBlank() ? null : normalize(email);
+
+        var probeUsername = normalizedUsername != null && current.mightContainUsername(normalizedUsername);
+        var probeEmail = normalizedEmail != null && current.mightContainEmail(normalizedEmail);
+
+        var result = new Availability(normalizedUsername == null ? null : true, normalizedEmail == null ? null : true);
+
+        if (!probeUsername && !probeEmail) {
+            filtered.increment();
+            return result;
+        }
+
+        probed.increment();
+        var conflicts = repository.findIdentityConflicts(probeUsername ? normalizedUsername : null, probeEmail ? normalizedEmail : null);
+
+        for (var conflict : conflicts) {
+            if (conflict.getId().equals(excludeId)) continue;
+            if (probeUsername && normalizedUsername.equals(normalize(conflict.getUsername()))) result.setUsername(false);
+            if (probeEmail && conflict.getEmail() != null && normalizedEmail.equals(normalize(conflict.getEmail()))) result.setEmail(false);
+        }
+
+        return result;
+    }
+
+    /**
+     * Registra un nombre de usuario y un email recién guardados.
+     */
+    public void add(String username, String email) {
+        var current = filters;
+        if (username != null) current.addUsername(normalize(username));
+        if (email != null) current.addEmail(normalize(email));
+    }
+
+    public AvailabilityStats stats() {
+        return new AvailabilityStats(filtered.sum(), probed.sum(), filters.usernames.bitCount(), filters.usernames.hashFunctions());
+    }
+
+    /**
+     * Normaliza un valor igual que la intercalación de la base de datos, que no distingue mayúsculas.
+     */
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Filtros de nombres de usuario y emails. Mientras se reconstruyen, se consulta también el filtro anterior
+     * para no responder que un valor está disponible antes de terminar la carga.
+     */
+    private static final class Filters {
+
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+        private volatile Filters previous;
+
+        Filters(BloomFilter usernames, BloomFilter emails, Filters previous) {
+            this.usernames = usernames;
+            this.emails = emails;
+            this.previous = previous;
+        }
+
+        boolean mightContainUsername(String value) {
+            var before = previous;
+            return usernames.mightContain(value) || (before != null && before.mightContainUsername(value));
+        }
+
+        boolean mightContainEmail(String value) {
+            var before = previous;
+            return emails.mightContain(value) || (before != null && before.mightContainEmail(value));
+        }
+
+        void addUsername(String value) {
+            usernames.put(value);
+        }
+
+        void addEmail(String value) {
+            emails.put(value);
+        }
+    }
+
+    /**
+     * Contadores de las comprobaciones de disponibilidad.
+     *
+     * @param filtered      Comprobaciones resueltas solo con el filtro de Bloom.
+     * @param probed        Comprobaciones que consultaron la base de datos.
+     * @param bits          Tamaño en bits de cada filtro.
+     * @param hashFunctions Número de funciones hash de cada filtro.
+     */
+    public record AvailabilityStats(long filtered, long probed, long bits, int hashFunctions) {
+    }
+}
@@ -0,0 +1,149 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.dto.AuditEntry;
+import com.luidmidev.template.spring.dto.BulkUpdateResult;
+import com.luidmidev.template.spring.dto.BulkUserUpdate;
+import com.luidmidev.template.spring.exceptions.ClientException;
+import com.luidmidev.template.spring.models.AuditAction;
+import com.luidmidev.template.spring.models.User;
+import com.luidmidev.template.spring.repositories.UserJdbcRepository;
+import com.luidmidev.template.spring.repositories.UserJdbcRepository.UserTarget;
+import com.luidmidev.template.spring.security.PrincipalCache;
+import com.luidmidev.template.spring.security.jwt.CredentialVersions;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Operaciones de administración aplicadas a varios usuarios a la vez.
+ * <p>
+ * Los cambios se aplican con sentencias {@code UPDATE} por conjuntos de identificadores dentro de una única
+ * transacción, sin cargar las entidades. Las notificaciones se escriben en la bandeja de salida en la misma
+ * transacción, junto con el incremento de la versión de credenciales que revoca los tokens de los usuarios afectados.
+ * Una vez confirmada, la auditoría se entrega en un solo lote al destino configurado y se invalidan las sesiones en
+ * caché.
+ */
+@Log4j2
+@Service
+public class UserBulkService {
+
+    private final UserJdbcRepository jdbcRepository;
+    private final SessionAuditService auditService;
+    private final AuthorityRegistry authorityRegistry;
+    private final PrincipalCache principalCache;
+    private final CredentialVersions credentialVersions;
+    private final EmailOutboxService emailOutbox;
+
+    @Value("${users.bulk.max-users:10000}")
+    private int maxUsers;
+
+    UserBulkService(UserJdbcRepository jdbcRepository, SessionAuditService auditService, AuthorityRegistry authorityRegistry, PrincipalCache principalCache, CredentialVersions credentialVersions, EmailOutboxService emailOutbox) {
+        this.jdbcRepository = jdbcRepository;
+        this.auditService = auditService;
+        this.authorityRegistry = authorityRegistry;
+        this.principalCache = principalCache;
+        this.credentialVersions = credentialVersions;
+        this.emailOutbox = emailOutbox;
+    }
+
+    /**
+     * Cambia el estado o los roles de los usuarios seleccionados.
+     *
+     * @param update    Usuarios seleccionados y cambios a aplicar.
+     * @param principal Administrador que realiza la operación.
+     * @param ip        Dirección IP desde la que se realiza la operación.
+     * @return Número de usuarios seleccionados y modificados.
+     */
+    @Transactional
+    public BulkUpdateResult update(BulkUserUpdate update, User principal, String ip) {
+
+        var enabled = update.getEnabled();
+        var authorities = update.getAuthorities();
+
+        if (enabled == null && authorities == null) {
+            throw new ClientException("No se ha enviado ningún dato para actualizar");
+        }
+
+        if ((update.getIds() == null || update.getIds().isEmpty()) && (update.getFilter() == null || update.getFilter().isEmpty())) {
+            throw new ClientException("Debe indicar los identificadores o un filtro de usuarios");
+        }
+
+        if (authorities != null && !authorityRegistry.containsAll(authorities)) {
+            throw new ClientException("Alguna de las autoridades enviadas no existe");
+        }
+
+        var targets = jdbcRepository.findTargets(update.getIds(), update.getFilter(), maxUsers + 1);
+
+        if (targets.size() > maxUsers) {
+            throw new ClientException("La operación afecta a más de " + maxUsers + " usuarios, refine el filtro");
+        }
+
+        if (targets.isEmpty()) return new BulkUpdateResult(0, 0);
+
+        var ids = targets.stream().map(UserTarget::id).toList();
+
+        if (ids.contains(principal.getId()) && (Boolean.FALSE.equals(enabled) || (authorities != null && !authorities.contains("ADMIN")))) {
+            throw new ClientException("No puede deshabilitar ni quitar el rol de administrador a su propio usuario");
+        }
+
+        // Solo se modifican, se revocan y se cuentan los usuarios cuyo estado o roles cambian realmente
+        var changed = new LinkedHashSet<Long>();
+        if (enabled != null) {
+            var enabledChanges = jdbcRepository.findEnabledChanges(ids, enabled);
+            jdbcRepository.updateEnabled(enabledChanges, enabled);
+            changed.addAll(enabledChanges);
+        }
+        if (authorities != null) {
+            var distinct = authorities.stream().distinct().toList();
+            var authorityChanges = jdbcRepository.findAuthorityChanges(ids, distinct);
+            jdbcRepository.replaceAuthorities(authorityChanges, distinct);
+            changed.addAll(authorityChanges);
+        }
+        var updated = changed.size();
+
+        credentialVersions.bumpAll(List.copyOf(changed));
+
+        var description = describe(enabled, authorities);
+        var now = LocalDateTime.now();
+        auditService.saveAll(targets.stream()
+                .map(target -> new AuditEntry(null, now, target.id(), target.username(), ip, AuditAction.USER_BULK_UPDATE.name(), description))
+                .toList());
+
+        if (update.isNotify()) {
+            var details = (enabled != null ? emailOutbox.text("email.bulk-updated.state", emailOutbox.text(enabled ? "email.value.enabled" : "email.value.disabled")) : "") +
+                    (authorities != null ? emailOutbox.text("email.bulk-updated.roles", String.join(", ", authorities)) : "");
+            emailOutbox.enqueueAll(targets.stream()
+                    .filter(target -> target.email() != null)
+                    .map(target -> emailOutbox.fromTemplate(target.email(), "bulk-updated", target.username(), details))
+                    .toList());
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                afterUpdate(targets);
+            }
+        });
+
+        log.info("Actualización masiva por {}: {} usuarios seleccionados, {} modificados ({})", principal.getUsername(), targets.size(), updated, description);
+        return new BulkUpdateResult(targets.size(), updated);
+    }
+
+    private void afterUpdate(List<UserTarget> targets) {
+        for (var target : targets) principalCache.evict(target.username());
+    }
+
+    private static String describe(Boolean enabled, List<String> authorities) {
+        var description = new StringBuilder("Actualización masiva de usuario");
+        if (enabled != null) description.append(enabled ? ": habilitado" : ": deshabilitado");
+        if (authorities != null) description.append(enabled != null ? ", roles " : ": roles ").append(String.join(", ", authorities));
+        return description.toString();
+    }
+}
@@ -0,0 +1,396 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.dto.ImportJobStatus;
+import com.luidmidev.template.spring.dto.ImportJobStatus.State;
+import com.luidmidev.template.spring.dto.Register;
+import com.luidmidev.template.spring.exceptions.ClientException;
+import com.luidmidev.template.spring.exceptions.ServerBusyException;
+import com.luidmidev.template.spring.models.AuditAction;
+import com.luidmidev.template.spring.models.User;
+import com.luidmidev.template.spring.repositories.UserJdbcRepository;
+import com.luidmidev.template.spring.security.BoundedPasswordEncoder;
+import com.luidmidev.template.spring.utils.SpreadsheetRowReader;
+import com.luidmidev.template.spring.validation.CiConstraintValidator;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importación masiva de usuarios desde archivos XLSX o CSV.
+ * <p>
+ * El archivo se guarda en un archivo temporal y se procesa en segundo plano, fila a fila y sin cargarlo
+ * completo en memoria. Las filas válidas se agrupan en lotes: las contraseñas de cada lote se codifican en
+ * paralelo en un grupo de hilos propio y acotado (para no competir con los inicios de sesión) y los usuarios se
+ * insertan con sentencias JDBC por lotes. El avance se consulta con el identificador de la importación.
+ * <p>
+ * La primera fila debe contener las columnas {@code name}, {@code lastname}, {@code username}, {@code email},
+ * {@code cedula} y {@code password}, en cualquier orden. Todos los usuarios importados reciben el rol {@code USER}.
+ */
+@Log4j2
+@Service
+public class UserImportService {
+
+    private static final List<String> COLUMNS = List.of("name", "lastname", "username", "email", "cedula", "password");
+
+    private final UserJdbcRepository jdbcRepository;
+    private final UserAvailabilityService availabilityService;
+    private final AuthorityRegistry authorityRegistry;
+    private final SessionAuditService sessionAuditService;
+    private final PasswordEncoder hashingEncoder;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ThreadPoolExecutor jobExecutor;
+    private final ThreadPoolExecutor hashingExecutor;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${users.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${users.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${users.import.retention-millis:3600000}")
+    private long retentionMillis;
+
+    UserImportService(
+            UserJdbcRepository jdbcRepository,
+            UserAvailabilityService availabilityService,
+            AuthorityRegistry authorityRegistry,
+            SessionAuditService sessionAuditService,
+            BoundedPasswordEncoder passwordEncoder,
+            Validator validator,
+            TransactionTemplate transactionTemplate,
+            @Value("${users.import.hashing-threads:#{T(java.lang.Math).max(1, T(java.lang.Runtime).getRuntime().availableProcessors() / 2)}}") int hashingThreads,
+            @Value("${users.import.max-queued-jobs:4}") int maxQueuedJobs
+    ) {
+        this.jdbcRepository = jdbcRepository;
+        this.availabilityService = availabilityService;
+        this.authorityRegistry = authorityRegistry;
+        this.sessionAuditService = sessionAuditService;
+        this.hashingEncoder = passwordEncoder.getDelegate();
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+
+        // Las importaciones se procesan de una en una; las demás esperan en una cola acotada
+        this.jobExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(maxQueuedJobs), namedThreads("user-import"), new ThreadPoolExecutor.AbortPolicy());
+
+        // Cuando la cola de hashing se llena, el hilo de la importación calcula el hash, lo que frena la lectura del archivo
+        this.hashingExecutor = new ThreadPoolExecutor(hashingThreads, hashingThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(hashingThreads * 4), namedThreads("user-import-hashing"), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Guarda el archivo recibido y programa su importación.
+     *
+     * @param file      Archivo XLSX o CSV con los usuarios.
+     * @param principal Administrador que solicita la importación.
+     * @return El estado inicial de la importación.
+     */
+    public ImportJobStatus start(MultipartFile file, User principal) {
+
+        var filename = file.getOriginalFilename() == null ? "" : file.getOriginalFilename();
+        var lowerName = filename.toLowerCase(Locale.ROOT);
+        if (!lowerName.endsWith(".xlsx") && !lowerName.endsWith(".csv")) {
+            throw new ClientException("Formato de archivo no soportado, use XLSX o CSV");
+        }
+
+        Path temp;
+        try {
+            temp = Files.createTempFile("user-import-", lowerName.substring(lowerName.lastIndexOf('.')));
+            file.transferTo(temp);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo guardar el archivo de importación", e);
+        }
+
+        var job = new ImportJob(UUID.randomUUID().toString(), filename);
+        jobs.put(job.id, job);
+
+        try {
+            jobExecutor.execute(() -> run(job, temp));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteQuietly(temp);
+            throw new ServerBusyException("Hay demasiadas importaciones en curso, intente nuevamente en unos minutos", 60);
+        }
+
+        sessionAuditService.saveActionUser(principal, AuditAction.USER_IMPORT, "Importación de usuarios " + job.id + " (" + filename + ")");
+
+        return job.status();
+    }
+
+    /**
+     * Obtiene el estado de una importación.
+     *
+     * @param id Identificador de la importación.
+     * @return El estado actual de la importación.
+     */
+    public ImportJobStatus status(String id) {
+        var job = jobs.get(id);
+        if (job == null) throw new ClientException("La importación no existe", 404);
+        return job.status();
+    }
+
+    /**
+     * Descarta el estado de las importaciones terminadas hace más del tiempo de retención.
+     */
+    @Scheduled(fixedDelayString = "${users.import.retention-millis:3600000}")
+    public void evictFinished() {
+        var limit = LocalDateTime.now().minus(Duration.ofMillis(retentionMillis));
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(limit));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+        hashingExecutor.shutdown();
+    }
+
+    private void run(ImportJob job, Path file) {
+        job.state = State.RUNNING;
+        log.info("Iniciando importación de usuarios {} ({})", job.id, job.filename);
+
+        try {
+            var role = authorityRegistry.find("USER").orElseThrow(() -> new IllegalStateException("No se ha encontrado el rol de usuario"));
+            var context = new ImportContext(job, role.getId());
+
+            SpreadsheetRowReader.read(file, job.filename, context::accept);
+            context.flush();
+
+            if (context.columns == null) throw new ClientException("El archivo está vacío");
+
+            job.finish(State.COMPLETED, null);
+            log.info("Importación de usuarios {} terminada: {} importados, {} rechazados", job.id, job.imported.get(), job.rejected.get());
+        } catch (ClientException e) {
+            job.finish(State.FAILED, e.getMessage());
+        } catch (Exception e) {
+            log.error("Error en la importación de usuarios {}", job.id, e);
+            job.finish(State.FAILED, "No se pudo procesar el archivo: " + e.getMessage());
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}", file, e);
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        var counter = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Estado de lectura de un archivo: índices de las columnas, valores ya vistos y el lote pendiente.
+     */
+    private final class ImportContext {
+
+        private final ImportJob job;
+        private final Long authorityId;
+        private final Set<String> usernames = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private final List<PendingUser> batch = new ArrayList<>();
+        private Map<String, Integer> columns;
+
+        ImportContext(ImportJob job, Long authorityId) {
+            this.job = job;
+            this.authorityId = authorityId;
+        }
+
+        void accept(int rowNumber, List<String> values) {
+
+            if (columns == null) {
+                readHeader(values);
+                return;
+            }
+
+            if (values.stream().allMatch(String::isBlank)) return;
+
+            job.processed.incrementAndGet();
+
+            var register = new Register();
+            register.setName(value(values, "name"));
+            register.setLastname(value(values, "lastname"));
+            register.setUsername(value(values, "username"));
+            register.setEmail(value(values, "email"));
+            register.setPassword(value(values, "password"));
+
+            // Las celdas numéricas pierden el cero inicial de las cédulas de las provincias 01 a 09
+            var cedula = value(values, "cedula");
+            if (cedula.length() == 9 && cedula.chars().allMatch(Character::isDigit)) cedula = "0" + cedula;
+
+            var errors = new ArrayList<String>();
+            for (var violation : validator.validate(register)) {
+                errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+            if (!CiConstraintValidator.validate(cedula)) errors.add("cedula: Cédula inválida");
+
+            if (errors.isEmpty()) {
+                if (!usernames.add(normalize(register.getUsername()))) errors.add("username: Nombre de usuario repetido en el archivo");
+                if (!emails.add(normalize(register.getEmail()))) errors.add("email: Email repetido en el archivo");
+            }
+
+            if (!errors.isEmpty()) {
+                job.reject(rowNumber, String.join("; ", errors));
+                return;
+            }
+
+            batch.add(new PendingUser(rowNumber, register, cedula));
+            if (batch.size() >= batchSize) flush();
+        }
+
+        private void readHeader(List<String> values) {
+            columns = new HashMap<>();
+            for (int i = 0; i < values.size(); i++) columns.putIfAbsent(normalize(values.get(i)), i);
+
+            var missing = COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+            if (!missing.isEmpty()) throw new ClientException("Faltan las columnas: " + String.join(", ", missing));
+        }
+
+        private String value(List<String> values, String column) {
+            int index = columns.get(column);
+            return index < values.size() ? values.get(index).trim() : "";
+        }
+
+        /**
+         * Descarta los usuarios que ya existen, codifica las contraseñas del lote en paralelo e inserta el lote.
+         */
+        void flush() {
+            if (batch.isEmpty()) return;
+
+            var accepted = new ArrayList<PendingUser>(batch.size());
+            for (var pending : batch) {
+                var availability = availabilityService.check(pending.register.getUsername(), pending.register.getEmail(), null);
+                if (!availability.getUsername()) job.reject(pending.rowNumber, "username: Nombre de usuario no disponible");
+                else if (!availability.getEmail()) job.reject(pending.rowNumber, "email: El email ingresado ya está registrado");
+                else accepted.add(pending);
+            }
+            batch.clear();
+
+            var hashes = accepted.stream()
+                    .map(pending -> CompletableFuture.supplyAsync(() -> hashingEncoder.encode(pending.register.getPassword()), hashingExecutor))
+                    .toList();
+
+            var users = new ArrayList<User>(accepted.size());
+            for (int i = 0; i < accepted.size(); i++) {
+                var register = accepted.get(i).register;
+                users.add(User.builder()
+                        .name(register.getName())
+                        .lastname(register.getLastname())
+                        .username(register.getUsername())
+                        .email(register.getEmail())
+                        .cedula(accepted.get(i).cedula)
+                        .password(hashes.get(i).join())
+                        .build());
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcRepository.insertAll(users, authorityId));
+                imported(users);
+            } catch (DataIntegrityViolationException e) {
+                // Otro proceso registró alguno de los valores mientras se procesaba el lote; se inserta uno a uno
+                for (int i = 0; i < users.size(); i++) {
+                    var user = users.get(i);
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> jdbcRepository.insertAll(List.of(user), authorityId));
+                        imported(List.of(user));
+                    } catch (DataIntegrityViolationException duplicate) {
+                        job.reject(accepted.get(i).rowNumber, "El nombre de usuario o el email ya están registrados");
+                    }
+                }
+            }
+        }
+
+        private void imported(List<User> users) {
+            for (var user : users) availabilityService.add(user.getUsername(), user.getEmail());
+            job.imported.addAndGet(users.size());
+        }
+    }
+
+    private record PendingUser(int rowNumber, Register register, String cedula) {
+    }
+
+    /**
+     * Estado mutable de una importación, actualizado por el hilo que la procesa.
+     */
+    private final class ImportJob {
+
+        private final String id;
+        private final String filename;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger imported = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final List<String> errors = new ArrayList<>();
+        private volatile State state = State.PENDING;
+        private volatile String message;
+        private volatile LocalDateTime finishedAt;
+
+        ImportJob(String id, String filename) {
+            this.id = id;
+            this.filename = filename;
+        }
+
+        void reject(int rowNumber, String error) {
+            rejected.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) errors.add("Fila " + rowNumber + ": " + error);
+            }
+        }
+
+        void finish(State state, String message) {
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+            this.state = state;
+        }
+
+        ImportJobStatus status() {
+            List<String> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = List.copyOf(errors);
+            }
+            return new ImportJobStatus(id, filename, state, processed.get(), imported.get(), rejected.get(), errorsCopy, message, createdAt, finishedAt);
+        }
+    }
+}
@@ -3,21 +3,37 @@ package com.luidmidev.template.spring.services;
 
 import com.luidmidev.template.spring.dto.Register;
 import com.luidmidev.template.spring.dto.UpdateUser;
+import com.luidmidev.template.spring.dto.UserPage;
+import com.luidmidev.template.spring.dto.UserSummary;
 import com.luidmidev.template.spring.exceptions.ClientException;
+import com.luidmidev.template.spring.models.AuditAction;
 import com.luidmidev.template.spring.models.User;
-import com.luidmidev.template.spring.repositories.AuthorityRepository;
+import com.luidmidev.template.spring.repositories.UserJdbcRepository;
 import com.luidmidev.template.spring.repositories.UserRepository;
+import com.luidmidev.template.spring.security.PrincipalCache;
+import com.luidmidev.template.spring.security.jwt.CredentialVersions;
 import com.luidmidev.template.spring.security.jwt.Jwt;
-import com.waipersoft.email.EmailSenderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,26 +44,94 @@ import java.util.Optional;
 @Service
 @Transactional
 @Validated
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository repository;
-    private final AuthorityRepository authorityRepository;
-    private final EmailSenderService emailSenderService;
+    private final AuthorityRegistry authorityRegistry;
+    private final UserAvailabilityService availabilityService;
+    private final EmailOutboxService emailOutbox;
     private final PasswordEncoder encoder;
     private final SessionAuditService sessionAuditService;
     private final Jwt jwtutil;
+    private final PrincipalCache principalCache;
+    private final CredentialVersions credentialVersions;
+    private final UserJdbcRepository jdbcRepository;
+    private final ObjectMapper objectMapper;
 
-    UserService(UserRepository repository, AuthorityRepository authorityRepository, EmailSenderService emailSenderService, PasswordEncoder encoder, SessionAuditService sessionAuditService, Jwt jwtutil) {
+    @Value("${users.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${users.page.max-size:500}")
+    private int maxPageSize;
+
+    UserService(UserRepository repository, AuthorityRegistry authorityRegistry, UserAvailabilityService availabilityService, EmailOutboxService emailOutbox, PasswordEncoder encoder, SessionAuditService sessionAuditService, Jwt jwtutil, PrincipalCache principalCache, CredentialVersions credentialVersions, UserJdbcRepository jdbcRepository, ObjectMapper objectMapper) {
         this.repository = repository;
-        this.authorityRepository = authorityRepository;
-        this.emailSenderService = emailSenderService;
+        this.authorityRegistry = authorityRegistry;
+        this.availabilityService = availabilityService;
+        this.emailOutbox = emailOutbox;
         this.encoder = encoder;
         this.sessionAuditService = sessionAuditService;
         this.jwtutil = jwtutil;
+        this.principalCache = principalCache;
+        this.credentialVersions = credentialVersions;
+        this.jdbcRepository = jdbcRepository;
+        this.objectMapper = objectMapper;
     }
 
-    public Iterable<User> findAll() {
-        return repository.findAll();
+    /**
+     * Obtiene una página de usuarios paginada por cursor (identificador del último usuario de la página anterior).
+     * El costo de cada página es el mismo sin importar su posición.
+     *
+     * @param after              Identificador del último usuario recibido, o {@code null} para la primera página.
+     * @param size               Tamaño de la página; se limita al máximo configurado.
+     * @param includeAuthorities Si se deben incluir los nombres de los roles de cada usuario.
+     * @return La página de usuarios y el cursor de la siguiente.
+     */
+    @Transactional(readOnly = true)
+    public UserPage findPage(Long after, Integer size, boolean includeAuthorities) {
+
+        var pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        var items = repository.findSummariesAfter(after == null ? 0L : after, Limit.of(pageSize));
+
+        if (includeAuthorities && !items.isEmpty()) {
+            var byId = new HashMap<Long, UserSummary>();
+            for (var item : items) {
+                item.setAuthorities(new ArrayList<>());
+                byId.put(item.getId(), item);
+            }
+            for (var row : repository.findAuthorityNames(byId.keySet())) {
+                byId.get(row.getUserId()).getAuthorities().add(row.getAuthority());
+            }
+        }
+
+        var nextCursor = items.size() < pageSize ? null : items.get(items.size() - 1).getId();
+        return new UserPage(items, nextCursor);
+    }
+
+    /**
+     * Escribe todos los usuarios en formato NDJSON (un objeto JSON por línea) leyendo las filas con un cursor,
+     * por lo que la memoria utilizada no depende del número de usuarios.
+     *
+     * @param includeAuthorities Si se deben incluir los nombres de los roles de cada usuario.
+     * @param output             Flujo de salida donde se escriben los usuarios.
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    @Transactional(readOnly = true)
+    public void export(boolean includeAuthorities, OutputStream output) throws IOException {
+        try (var writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(output)) {
+            jdbcRepository.streamSummaries(includeAuthorities, summary -> {
+                try {
+                    writer.write(summary);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
     public User find(String id) {
@@ -67,38 +151,42 @@ public class UserService implements UserDetailsService {
 
         var user = repository.findById(id).orElseThrow(() -> new ClientException("El usuario no existe"));
 
-        if (authorityRepository.existsAllByNameIn(authorities)) {
+        if (authorities != null && !authorityRegistry.containsAll(authorities)) {
             throw new ClientException("Alguna de las autoridades enviadas no existe");
         }
 
         if (enabled != null) user.setEnabled(enabled);
-        if (authorities != null) user.setAuthorities(authorityRepository.findAllByNameIn(authorities));
+        if (authorities != null) user.setAuthorities(new ArrayList<>(authorityRegistry.resolve(authorities)));
         if (password != null && !password.isBlank()) user.setPassword(encoder.encode(password));
 
         repository.save(user);
-
-        sessionAuditService.saveActionUser(user, "Actualización de usuario");
-        emailSenderService.sendSimpleMail(user.getEmail(), "ACTUALIZACIÓN DE DATOS", "Se han actualizado sus datos de usuario desde el sistema de administración de Turismo Urcuquí, si usted no ha solicitado esta acción, por favor contacte con el administrador del sistema. Sus datos de acceso son: \n" +
-                "Usuario: " + user.getUsername() + "\n" +
-                "Contraseña: " + (password != null && !password.isBlank() ? password : "No se ha actualizado") + "\n" +
-                "Estado: " + (user.isEnabled() ? "Habilitado" : "Deshabilitado") + "\n" +
-                "Cuenta no expirada: " + (user.isAccountNonExpired() ? "Si" : "No") + "\n" +
-                "Cuenta no bloqueada: " + (user.isAccountNonLocked() ? "Si" : "No") + "\n"
+        principalCache.evictAfterCommit(user.getUsername());
+        credentialVersions.bump(user.getId());
+
+        sessionAuditService.saveActionUser(user, AuditAction.USER_UPDATE, "Actualización de usuario");
+        emailOutbox.enqueueTemplate(user.getEmail(), "user-updated",
+                user.getUsername(),
+                password != null && !password.isBlank() ? EmailOutboxService.secret(password) : emailOutbox.text("email.value.password-not-updated"),
+                emailOutbox.text(user.isEnabled() ? "email.value.enabled" : "email.value.disabled"),
+                emailOutbox.text(user.isAccountNonExpired() ? "email.value.yes" : "email.value.no"),
+                emailOutbox.text(user.isAccountNonLocked() ? "email.value.yes" : "email.value.no")
         );
     }
 
 
     public String register(Register register) {
 
-        if (repository.existsByUsername(register.getUsername())) {
+        var availability = availabilityService.check(register.getUsername(), register.getEmail(), null);
+
+        if (!availability.getUsername()) {
             throw new ClientException("Nombre de usuario no disponible");
         }
 
-        if (repository.existsByEmail(register.getEmail())) {
+        if (!availability.getEmail()) {
             throw new ClientException("El email ingresado ya está registrado");
         }
 
-        var userRole = authorityRepository.findByName("ROLE_USER").orElseThrow(() -> new ClientException("No se ha encontrado el rol de usuario"));
+        var userRole = authorityRegistry.find("USER").orElseThrow(() -> new ClientException("No se ha encontrado el rol de usuario"));
 
         var user = User.builder()
                 .username(register.getUsername())
@@ -111,43 +199,110 @@ public class UserService implements UserDetailsService {
                 .build();
 
 
-        var usersaved = repository.save(user);
+        var usersaved = saveUnique(user);
+        availabilityService.add(usersaved.getUsername(), usersaved.getEmail());
 
-        var jwt = jwtutil.create(usersaved.getId().toString(), usersaved.getUsername());
+        var jwt = jwtutil.create(usersaved);
 
-        sessionAuditService.saveActionUser(usersaved, "Registro de usuario");
-        emailSenderService.sendSimpleMail(register.getEmail(), "BIENVENIDO A TURISMO URCUQUÍ", "Gracias por registrarse en nuestra aplicacion de realidad aumentada, esperamos que disfrute de su experiencia");
+        sessionAuditService.saveActionUser(usersaved, AuditAction.USER_REGISTER, "Registro de usuario");
+        emailOutbox.enqueueTemplate(register.getEmail(), "welcome");
 
         return jwt;
     }
 
-    public void update(Register register, User user) {
+    public void update(Register register, User principal) {
+
+        var user = repository.findByUsernameOrEmail(principal.getUsername(), principal.getUsername()).orElseThrow(() -> new ClientException("El usuario no existe"));
 
         var username = user.getUsername();
         var email = user.getEmail();
 
-        if (!username.equals(register.getUsername()) && repository.existsByUsername(username)) {
-            throw new ClientException("Nombre de usuario no disponible");
-        }
+        var usernameChanged = !username.equals(register.getUsername());
+        var emailChanged = !register.getEmail().equals(email);
 
-        if (!email.equals(register.getEmail()) && repository.existsByEmail(email)) {
-            throw new ClientException("El email ingresado ya está registrado");
+        if (usernameChanged || emailChanged) {
+            var availability = availabilityService.check(usernameChanged ? register.getUsername() : null, emailChanged ? register.getEmail() : null, user.getId());
+
+            if (usernameChanged && !availability.getUsername()) {
+                throw new ClientException("Nombre de usuario no disponible");
+            }
+
+            if (emailChanged && !availability.getEmail()) {
+                throw new ClientException("El email ingresado ya está registrado");
+            }
         }
 
+        principalCache.evictAfterCommit(username);
+
         user.setUsername(register.getUsername());
         user.setName(register.getName());
         user.setLastname(register.getLastname());
         user.setEmail(register.getEmail());
 
-        if (register.getPassword() != null && !register.getPassword().isBlank()) {
+        var passwordChanged = register.getPassword() != null && !register.getPassword().isBlank();
+
+        if (passwordChanged) {
             user.setPassword(encoder.encode(register.getPassword()));
         }
 
-        repository.save(user);
+        saveUnique(user);
+        availabilityService.add(user.getUsername(), user.getEmail());
+
+        if (passwordChanged || !username.equals(user.getUsername())) {
+            credentialVersions.bump(user.getId());
+        }
 
-        sessionAuditService.saveActionUser(user, "Actualización de usuario");
+        sessionAuditService.saveActionUser(user, AuditAction.USER_UPDATE, "Actualización de usuario");
     }
 
+    /**
+     * Guarda un usuario con un nombre de usuario o email nuevos.
+     * <p>
+     * La disponibilidad se comprueba antes de guardar, pero otra solicitud u otra instancia puede registrar el mismo
+     * valor entre la comprobación y la inserción. Los cambios se envían a la base de datos en este punto para que la
+     * restricción única se reporte como un error del cliente y no como un error interno al confirmar la transacción.
+     */
+    private User saveUnique(User user) {
+        try {
+            return repository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new ClientException("El nombre de usuario o el email ya están registrados");
+        }
+    }
+
+    /**
+     * Actualiza el hash de la contraseña de un usuario cuyo hash almacenado usa parámetros de costo desactualizados.
+     * <p>
+     * Spring Security lo invoca tras un inicio de sesión exitoso cuando el codificador indica que el hash debe
+     * actualizarse. La contraseña no cambia, por lo que los tokens emitidos siguen siendo válidos. Solo se escribe la
+     * columna del hash: guardar la entidad completa sobrescribiría los cambios hechos al usuario desde que se cargó.
+     *
+     * @param details     El usuario autenticado.
+     * @param newPassword El nuevo hash de la contraseña.
+     * @return El usuario con el hash actualizado.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails details, String newPassword) {
+        var user = (User) details;
+        repository.updatePassword(user.getId(), newPassword);
+        user.setPassword(newPassword);
+        return user;
+    }
+
+    /**
+     * Carga el usuario autenticado de una solicitud con JWT. Se ejecuta fuera de una transacción para que la
+     * entidad quede desasociada antes de reemplazar sus roles por las instancias canónicas del registro.
+     *
+     * @param username Nombre de usuario (asunto del token).
+     * @return Los detalles del usuario.
+     * @throws UsernameNotFoundException Si no se encuentra ningún usuario con el nombre de usuario especificado.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserDetails loadPrincipal(String username) throws UsernameNotFoundException {
+        var user = (User) loadUserByUsername(username);
+        user.setAuthorities(authorityRegistry.canonicalize(user.getAuthorities()));
+        return user;
+    }
 
     /**
      * Carga los detalles de un usuario por su nombre de usuario.
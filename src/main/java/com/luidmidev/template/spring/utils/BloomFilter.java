@@ -0,0 +1,97 @@
+package com.luidmidev.template.spring.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom sobre cadenas, seguro para hilos.
+ * <p>
+ * Responde si un valor <em>podría</em> haberse agregado: una respuesta negativa es definitiva y una positiva
+ * puede ser un falso positivo con la probabilidad configurada. Los valores no se pueden eliminar; para
+ * descartar valores obsoletos se construye un filtro nuevo y se reemplaza el anterior.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    /**
+     * @param expectedInsertions Número de valores que se espera agregar.
+     * @param falsePositiveRate  Probabilidad de falso positivo deseada al alcanzar ese número de valores.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) throw new IllegalArgumentException("El número de valores esperados debe ser mayor a cero");
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) throw new IllegalArgumentException("La probabilidad de falso positivo debe estar entre 0 y 1");
+
+        var bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        var wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashFunctions = (int) Math.max(1, Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Agrega un valor al filtro.
+     */
+    public void put(CharSequence value) {
+        var hash = hash64(value);
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            var index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+            setBit(index);
+        }
+    }
+
+    /**
+     * Indica si el valor podría estar en el filtro.
+     *
+     * @return {@code false} si el valor con seguridad no se agregó.
+     */
+    public boolean mightContain(CharSequence value) {
+        var hash = hash64(value);
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            var index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) return false;
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private void setBit(long index) {
+        var word = (int) (index >>> 6);
+        var mask = 1L << index;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) return;
+        } while (!words.compareAndSet(word, current, current | mask));
+    }
+
+    /**
+     * FNV-1a de 64 bits seguido de la mezcla final de MurmurHash3, para que ambas mitades del resultado se
+     * puedan usar como funciones hash independientes.
+     */
+    private static long hash64(CharSequence value) {
+        var hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
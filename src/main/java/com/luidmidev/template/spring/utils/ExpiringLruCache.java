@@ -0,0 +1,188 @@
+package com.luidmidev.template.spring.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caché LRU acotada y segura para hilos, con expiración opcional por entrada.
+ * <p>
+ * Las entradas se reparten en segmentos independientes (cada uno con su propio bloqueo) para que los
+ * accesos concurrentes desde distintos hilos de petición no compitan por un único monitor.
+ *
+ * @param <K> Tipo de la clave.
+ * @param <V> Tipo del valor.
+ */
+public class ExpiringLruCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final int maxSize;
+    private final long defaultTtlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Crea una caché sin expiración por defecto.
+     *
+     * @param maxSize Número máximo de entradas.
+     */
+    public ExpiringLruCache(int maxSize) {
+        this(maxSize, 0);
+    }
+
+    /**
+     * Crea una caché con un tiempo de vida por defecto.
+     *
+     * @param maxSize          Número máximo de entradas.
+     * @param defaultTtlMillis Tiempo de vida por defecto en milisegundos, o un valor menor o igual a cero para no expirar.
+     */
+    @SuppressWarnings("unchecked")
+    public ExpiringLruCache(int maxSize, long defaultTtlMillis) {
+        if (maxSize <= 0) throw new IllegalArgumentException("El tamaño máximo de la caché debe ser mayor a cero");
+        this.maxSize = maxSize;
+        this.defaultTtlMillis = defaultTtlMillis;
+        var segmentCount = Math.min(SEGMENTS, maxSize);
+        var perSegment = Math.max(1, maxSize / segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) segments[i] = new Segment<>(perSegment, evictions);
+    }
+
+    /**
+     * Obtiene el valor asociado a la clave si existe y no ha expirado.
+     *
+     * @param key Clave a buscar.
+     * @return El valor almacenado o {@code null} si no existe o expiró.
+     */
+    public V get(K key) {
+        var value = segmentFor(key).get(key, System.currentTimeMillis());
+        if (value == null) misses.increment();
+        else hits.increment();
+        return value;
+    }
+
+    /**
+     * Obtiene el valor asociado a la clave o lo carga con la función indicada y lo almacena con el tiempo de vida por defecto.
+     * La función de carga se ejecuta fuera del bloqueo del segmento.
+     *
+     * @param key    Clave a buscar.
+     * @param loader Función que carga el valor cuando no está en caché.
+     * @return El valor almacenado o el recién cargado.
+     */
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        var value = get(key);
+        if (value != null) return value;
+        V loaded = loader.apply(key);
+        if (loaded != null) put(key, loaded);
+        return loaded;
+    }
+
+    /**
+     * Almacena un valor con el tiempo de vida por defecto.
+     */
+    public void put(K key, V value) {
+        put(key, value, defaultTtlMillis > 0 ? System.currentTimeMillis() + defaultTtlMillis : Long.MAX_VALUE);
+    }
+
+    /**
+     * Almacena un valor que expira en el instante indicado.
+     *
+     * @param key             Clave.
+     * @param value           Valor.
+     * @param expiresAtMillis Instante de expiración en milisegundos desde epoch.
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        segmentFor(key).put(key, value, expiresAtMillis);
+    }
+
+    /**
+     * Elimina la entrada asociada a la clave.
+     */
+    public void remove(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Elimina todas las entradas.
+     */
+    public void clear() {
+        for (var segment : segments) segment.clear();
+    }
+
+    public int size() {
+        var size = 0;
+        for (var segment : segments) size += segment.size();
+        return size;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size(), maxSize);
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        var hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[(hash & 0x7fffffff) % segments.length];
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+    }
+
+    private static final class Segment<K, V> {
+
+        private final LinkedHashMap<K, Entry<V>> map;
+
+        Segment(int capacity, LongAdder evictions) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    var evict = size() > capacity;
+                    if (evict) evictions.increment();
+                    return evict;
+                }
+            };
+        }
+
+        synchronized V get(K key, long now) {
+            var entry = map.get(key);
+            if (entry == null) return null;
+            if (entry.expiresAtMillis() <= now) {
+                map.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+
+        synchronized void put(K key, V value, long expiresAtMillis) {
+            map.put(key, new Entry<>(value, expiresAtMillis));
+        }
+
+        synchronized void remove(K key) {
+            map.remove(key);
+        }
+
+        synchronized void clear() {
+            map.clear();
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+
+    /**
+     * Contadores de uso de la caché.
+     *
+     * @param hits      Número de aciertos.
+     * @param misses    Número de fallos.
+     * @param evictions Número de entradas desalojadas por tamaño.
+     * @param size      Número de entradas actuales.
+     * @param maxSize   Capacidad máxima.
+     */
+    public record CacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+    }
+}
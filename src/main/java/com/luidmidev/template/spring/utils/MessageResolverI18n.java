@@ -1,29 +1,33 @@
 package com.luidmidev.template.spring.utils;
 
 import lombok.extern.log4j.Log4j2;
-import org.springframework.context.MessageSource;
 import org.springframework.context.NoSuchMessageException;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Component;
 
 import java.util.Locale;
 
+/**
+ * Resuelve los mensajes de {@code lang/messages*.properties} en el idioma de la solicitud actual, usando los
+ * mensajes precompilados de {@link MessageTemplates}.
+ */
 @Log4j2
 @Component
-public class MessageResolver_i18n {
-    final MessageSource messageSource;
+public class MessageResolverI18n {
 
-    public MessageResolver_i18n(MessageSource messageSource) {
-        this.messageSource = messageSource;
+    private final MessageTemplates templates;
+
+    public MessageResolverI18n(MessageTemplates templates) {
+        this.templates = templates;
     }
 
     public String get(String code, Object... args) throws NoSuchMessageException {
-        return messageSource.getMessage(code, args, getLocale());
+        return templates.render(code, getLocale(), args);
     }
 
     private Locale getLocale() {
         var locale = LocaleContextHolder.getLocale();
-        log.info("Locale getted: {}", locale);
+        log.debug("Idioma de la solicitud: {}", locale);
         return locale;
     }
 }
@@ -0,0 +1,121 @@
+package com.luidmidev.template.spring.utils;
+
+import java.text.DateFormat;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Mensaje con argumentos posicionales ({@code {0}}, {@code {1}}, ...) compilado una sola vez.
+ * <p>
+ * El patrón sigue las reglas de {@link MessageFormat}: un apóstrofo inicia o termina un texto literal y dos
+ * apóstrofos seguidos representan uno. Los argumentos simples se resuelven en fragmentos de texto e índices, y al
+ * renderizar solo se concatenan, sin volver a analizar el patrón. Los patrones con formatos explícitos
+ * ({@code {0,number,#.##}}, {@code {0,date}}, ...) se delegan en un {@link MessageFormat} precompilado.
+ * <p>
+ * Igual que {@code MessageSource}, un mensaje renderizado sin argumentos se devuelve tal como está escrito.
+ */
+public final class MessageTemplate {
+
+    private final String pattern;
+    private final Locale locale;
+    private final String[] literals;
+    private final int[] arguments;
+    private final MessageFormat format;
+
+    private MessageTemplate(String pattern, Locale locale, String[] literals, int[] arguments, MessageFormat format) {
+        this.pattern = pattern;
+        this.locale = locale;
+        this.literals = literals;
+        this.arguments = arguments;
+        this.format = format;
+    }
+
+    /**
+     * Compila un patrón.
+     *
+     * @param pattern Patrón con argumentos posicionales.
+     * @param locale  Idioma con el que se formatean los números y fechas.
+     * @throws IllegalArgumentException Si el patrón no es válido.
+     */
+    public static MessageTemplate compile(String pattern, Locale locale) {
+        var literals = new ArrayList<String>();
+        var arguments = new ArrayList<Integer>();
+        var literal = new StringBuilder();
+        var quoted = false;
+
+        for (int i = 0; i < pattern.length(); i++) {
+            var c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    literal.append('\'');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == '{' && !quoted) {
+                var end = pattern.indexOf('}', i);
+                if (end < 0) throw new IllegalArgumentException("Argumento sin cerrar en el mensaje: " + pattern);
+                var index = parseIndex(pattern, i + 1, end);
+                if (index < 0) {
+                    return new MessageTemplate(pattern, locale, null, null, new MessageFormat(pattern, locale));
+                }
+                literals.add(literal.toString());
+                arguments.add(index);
+                literal.setLength(0);
+                i = end;
+            } else {
+                literal.append(c);
+            }
+        }
+        literals.add(literal.toString());
+
+        return new MessageTemplate(pattern, locale, literals.toArray(String[]::new), arguments.stream().mapToInt(Integer::intValue).toArray(), null);
+    }
+
+    /**
+     * Índice de un argumento simple, o -1 si el argumento tiene un formato explícito.
+     */
+    private static int parseIndex(String pattern, int start, int end) {
+        if (start == end) throw new IllegalArgumentException("Argumento vacío en el mensaje: " + pattern);
+        var index = 0;
+        for (int i = start; i < end; i++) {
+            var c = pattern.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    public String render(Object... args) {
+        if (args == null || args.length == 0) return pattern;
+        if (format != null) return ((MessageFormat) format.clone()).format(args);
+
+        var builder = new StringBuilder(pattern.length() + 16 * arguments.length);
+        builder.append(literals[0]);
+        for (int i = 0; i < arguments.length; i++) {
+            var index = arguments[i];
+            if (index < args.length) {
+                builder.append(formatArgument(args[index]));
+            } else {
+                // MessageFormat deja el marcador cuando falta el argumento
+                builder.append('{').append(index).append('}');
+            }
+            builder.append(literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    private String formatArgument(Object arg) {
+        if (arg instanceof String string) return string;
+        if (arg instanceof Number number) return NumberFormat.getInstance(locale).format(number);
+        if (arg instanceof Date date) return DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale).format(date);
+        return String.valueOf(arg);
+    }
+}
@@ -0,0 +1,144 @@
+package com.luidmidev.template.spring.utils;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mensajes y plantillas de email de la aplicación, cargados y compilados al iniciar.
+ * <p>
+ * Se leen los archivos {@code <basename>.properties} y {@code <basename>_<idioma>[_<país>].properties} de cada
+ * nombre base configurado y cada mensaje se compila en un {@link MessageTemplate} por idioma. Para un idioma
+ * concreto se combinan, en orden de prioridad, el archivo del idioma y país, el del idioma y el archivo por
+ * defecto; la combinación se calcula una vez por idioma, de modo que renderizar un mensaje es una búsqueda en un
+ * mapa y una concatenación.
+ */
+@Log4j2
+@Component
+public class MessageTemplates {
+
+    private static final int MAX_CACHED_LOCALES = 64;
+
+    /**
+     * Mensajes compilados de cada archivo, indexados por el idioma del archivo ({@link Locale#ROOT} para el archivo
+     * por defecto).
+     */
+    private final Map<Locale, Map<String, MessageTemplate>> bundles;
+
+    /**
+     * Mensajes combinados con sus respaldos para cada idioma solicitado.
+     */
+    private final Map<Locale, Map<String, MessageTemplate>> resolved = new ConcurrentHashMap<>();
+
+    MessageTemplates(
+            @Value("${messages.templates.basenames:lang/messages,lang/emails}") String[] basenames,
+            @Value("${messages.templates.encoding:ISO-8859-1}") Charset encoding
+    ) throws IOException {
+        this.bundles = load(basenames, encoding);
+        log.info("Mensajes compilados: {} idiomas, {} mensajes por defecto", bundles.size(), bundles.getOrDefault(Locale.ROOT, Map.of()).size());
+    }
+
+    /**
+     * Renderiza un mensaje en el idioma indicado.
+     *
+     * @param code   Clave del mensaje.
+     * @param locale Idioma; si no hay un archivo para él se usa el idioma sin país y luego el archivo por defecto.
+     * @param args   Argumentos posicionales.
+     * @throws NoSuchMessageException Si el mensaje no existe en el idioma ni en el archivo por defecto.
+     */
+    public String render(String code, Locale locale, Object... args) throws NoSuchMessageException {
+        return find(code, locale).render(args);
+    }
+
+    /**
+     * Obtiene un mensaje compilado en el idioma indicado.
+     *
+     * @throws NoSuchMessageException Si el mensaje no existe en el idioma ni en el archivo por defecto.
+     */
+    public MessageTemplate find(String code, Locale locale) throws NoSuchMessageException {
+        var template = messages(locale).get(code);
+        if (template == null) throw new NoSuchMessageException(code, locale);
+        return template;
+    }
+
+    private Map<String, MessageTemplate> messages(Locale locale) {
+        var messages = resolved.get(locale);
+        if (messages != null) return messages;
+
+        messages = merge(locale);
+        // Los idiomas salen de las cabeceras de las solicitudes; se limita cuántas combinaciones se conservan
+        if (resolved.size() < MAX_CACHED_LOCALES) resolved.putIfAbsent(locale, messages);
+        return messages;
+    }
+
+    private Map<String, MessageTemplate> merge(Locale locale) {
+        var merged = new HashMap<>(bundles.getOrDefault(Locale.ROOT, Map.of()));
+        if (!locale.getLanguage().isEmpty()) {
+            merged.putAll(bundles.getOrDefault(new Locale(locale.getLanguage()), Map.of()));
+            if (!locale.getCountry().isEmpty()) {
+                merged.putAll(bundles.getOrDefault(new Locale(locale.getLanguage(), locale.getCountry()), Map.of()));
+            }
+        }
+        return Map.copyOf(merged);
+    }
+
+    private static Map<Locale, Map<String, MessageTemplate>> load(String[] basenames, Charset encoding) throws IOException {
+        var resolver = new PathMatchingResourcePatternResolver();
+        var bundles = new HashMap<Locale, Map<String, MessageTemplate>>();
+
+        for (var basename : basenames) {
+            var path = basename.trim();
+            var name = path.substring(path.lastIndexOf('/') + 1);
+            for (var resource : resolver.getResources("classpath*:" + path + "*.properties")) {
+                var locale = localeOf(name, resource);
+                if (locale == null) continue;
+
+                var templates = bundles.computeIfAbsent(locale, key -> new HashMap<>());
+                var compileLocale = locale.equals(Locale.ROOT) ? Locale.getDefault() : locale;
+                read(resource, encoding).forEach((code, pattern) -> templates.put((String) code, MessageTemplate.compile((String) pattern, compileLocale)));
+            }
+        }
+
+        var immutable = new HashMap<Locale, Map<String, MessageTemplate>>();
+        bundles.forEach((locale, templates) -> immutable.put(locale, Map.copyOf(templates)));
+        return Map.copyOf(immutable);
+    }
+
+    /**
+     * Obtiene el idioma de un archivo a partir de su nombre, o {@code null} si el archivo pertenece a otro nombre
+     * base con el mismo prefijo.
+     */
+    private static Locale localeOf(String name, Resource resource) {
+        var filename = resource.getFilename();
+        if (filename == null) return null;
+        var suffix = filename.substring(name.length(), filename.length() - ".properties".length());
+        if (suffix.isEmpty()) return Locale.ROOT;
+        if (!suffix.startsWith("_")) return null;
+
+        var parts = suffix.substring(1).split("_");
+        return parts.length == 1 ? new Locale(parts[0]) : new Locale(parts[0], parts[1]);
+    }
+
+    private static Properties read(Resource resource, Charset encoding) {
+        var properties = new Properties();
+        try (var reader = new InputStreamReader(resource.getInputStream(), encoding)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer " + resource.getDescription(), e);
+        }
+        return properties;
+    }
+}
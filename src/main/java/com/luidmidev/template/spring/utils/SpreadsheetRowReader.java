@@ -0,0 +1,186 @@
+package com.luidmidev.template.spring.utils;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectura fila a fila de hojas de cálculo XLSX y archivos CSV sin cargar el documento completo en memoria.
+ * <p>
+ * Los archivos XLSX se recorren con la API de eventos (SAX) de Apache POI, por lo que solo se mantiene en memoria
+ * la fila actual y la tabla de cadenas compartidas; solo se lee la primera hoja. Los valores de las celdas se
+ * entregan con el mismo formato que muestra Excel.
+ */
+public final class SpreadsheetRowReader {
+
+    private SpreadsheetRowReader() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Recibe cada fila leída.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+
+        /**
+         * @param rowNumber Número de la fila, empezando en 1.
+         * @param values    Valores de las celdas; las celdas vacías intermedias se entregan como cadenas vacías.
+         */
+        void row(int rowNumber, List<String> values);
+    }
+
+    /**
+     * Lee las filas de un archivo XLSX o CSV según su extensión.
+     *
+     * @param file     Archivo a leer.
+     * @param filename Nombre original del archivo, usado para determinar el formato.
+     * @param handler  Función que recibe cada fila.
+     * @throws IOException Si el archivo no se puede leer o su formato no es válido.
+     */
+    public static void read(Path file, String filename, RowHandler handler) throws IOException {
+        var name = filename == null ? "" : filename.toLowerCase();
+        if (name.endsWith(".xlsx")) readXlsx(file, handler);
+        else if (name.endsWith(".csv")) readCsv(file, handler);
+        else throw new IOException("Formato de archivo no soportado: " + filename);
+    }
+
+    /**
+     * Lee la primera hoja de un archivo XLSX.
+     */
+    public static void readXlsx(Path file, RowHandler handler) throws IOException {
+        try (var pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            var reader = new XSSFReader(pkg);
+            var strings = new ReadOnlySharedStringsTable(pkg, false);
+            var styles = reader.getStylesTable();
+            var sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) return;
+
+            try (var sheet = sheets.next()) {
+                var parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, new RowCollector(handler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("El archivo XLSX no es válido", e);
+        }
+    }
+
+    /**
+     * Lee un archivo CSV en UTF-8 separado por comas o punto y coma (se detecta en la primera fila). Admite
+     * valores entre comillas dobles con separadores, comillas escapadas y saltos de línea.
+     */
+    public static void readCsv(Path file, RowHandler handler) throws IOException {
+        try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.mark(1);
+            if (reader.read() != '\uFEFF') reader.reset();
+
+            reader.mark(8192);
+            var firstLine = reader.readLine();
+            if (firstLine == null) return;
+            reader.reset();
+            var separator = firstLine.indexOf(';') >= 0 && firstLine.indexOf(',') < 0 ? ';' : ',';
+
+            readCsv(reader, separator, handler);
+        }
+    }
+
+    private static void readCsv(Reader reader, char separator, RowHandler handler) throws IOException {
+        var values = new ArrayList<String>();
+        var value = new StringBuilder();
+        var quoted = false;
+        var rowNumber = 0;
+        var pendingRow = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            pendingRow = true;
+            if (quoted) {
+                if (c != '"') {
+                    value.append((char) c);
+                    continue;
+                }
+                reader.mark(1);
+                if (reader.read() == '"') {
+                    value.append('"');
+                } else {
+                    reader.reset();
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') reader.reset();
+                }
+                values.add(value.toString());
+                value.setLength(0);
+                handler.row(++rowNumber, values);
+                values = new ArrayList<>();
+                pendingRow = false;
+            } else {
+                value.append((char) c);
+            }
+        }
+
+        if (pendingRow) {
+            values.add(value.toString());
+            handler.row(++rowNumber, values);
+        }
+    }
+
+    /**
+     * Reúne las celdas de cada fila de la hoja y la entrega al terminarla.
+     */
+    private static final class RowCollector implements SheetContentsHandler {
+
+        private final RowHandler handler;
+        private final List<String> values = new ArrayList<>();
+        private int rowNumber;
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            rowNumber = rowNum + 1;
+            values.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.row(rowNumber, List.copyOf(values));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            var column = cellReference == null ? values.size() : new CellReference(cellReference).getCol();
+            while (values.size() < column) values.add("");
+            values.add(formattedValue == null ? "" : formattedValue);
+        }
+    }
+}
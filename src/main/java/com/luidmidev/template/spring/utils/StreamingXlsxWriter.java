@@ -0,0 +1,155 @@
+package com.luidmidev.template.spring.utils;
+
+import com.luidmidev.template.spring.exceptions.ClientException;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Escritor de hojas de cálculo XLSX con memoria constante.
+ * <p>
+ * Usa {@link SXSSFWorkbook}, que mantiene en memoria solo una ventana de las últimas filas y escribe las
+ * anteriores en un archivo temporal comprimido, por lo que el uso de memoria no depende del número de filas.
+ * Al superar el máximo de filas de una hoja se continúa en una hoja nueva.
+ *
+ * @param <T> Tipo de los elementos que se escriben, uno por fila.
+ */
+public class StreamingXlsxWriter<T> implements Closeable {
+
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private final SXSSFWorkbook workbook;
+    private final String sheetName;
+    private final List<Column<T>> columns;
+    private final CellStyle headerStyle;
+    private final CellStyle dateTimeStyle;
+    private final CellStyle dateStyle;
+
+    private SXSSFSheet sheet;
+    private int sheetCount;
+    private int rowIndex;
+
+    /**
+     * @param sheetName  Nombre de la hoja.
+     * @param columns    Columnas a escribir, en orden.
+     * @param rowsWindow Número de filas que se mantienen en memoria.
+     */
+    public StreamingXlsxWriter(String sheetName, List<Column<T>> columns, int rowsWindow) {
+        this.workbook = new SXSSFWorkbook(rowsWindow);
+        this.workbook.setCompressTempFiles(true);
+        this.sheetName = sheetName;
+        this.columns = columns;
+
+        var font = workbook.createFont();
+        font.setBold(true);
+        this.headerStyle = workbook.createCellStyle();
+        this.headerStyle.setFont(font);
+
+        var format = workbook.createDataFormat();
+        this.dateTimeStyle = workbook.createCellStyle();
+        this.dateTimeStyle.setDataFormat(format.getFormat("yyyy-mm-dd hh:mm:ss"));
+        this.dateStyle = workbook.createCellStyle();
+        this.dateStyle.setDataFormat(format.getFormat("yyyy-mm-dd"));
+
+        newSheet();
+    }
+
+    /**
+     * Escribe un elemento en una fila nueva.
+     */
+    public void write(T item) {
+        if (rowIndex >= MAX_ROWS) newSheet();
+
+        var row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < columns.size(); i++) {
+            var value = columns.get(i).value().apply(item);
+            if (value == null) continue;
+
+            var cell = row.createCell(i);
+            if (value instanceof Number number) {
+                cell.setCellValue(number.doubleValue());
+            } else if (value instanceof Boolean bool) {
+                cell.setCellValue(bool);
+            } else if (value instanceof LocalDateTime dateTime) {
+                cell.setCellValue(dateTime);
+                cell.setCellStyle(dateTimeStyle);
+            } else if (value instanceof LocalDate date) {
+                cell.setCellValue(date);
+                cell.setCellStyle(dateStyle);
+            } else if (value instanceof Collection<?> collection) {
+                cell.setCellValue(String.join(", ", collection.stream().map(String::valueOf).toList()));
+            } else {
+                cell.setCellValue(value.toString());
+            }
+        }
+    }
+
+    /**
+     * Escribe el documento completo en el flujo de salida.
+     */
+    public void finish(OutputStream output) throws IOException {
+        workbook.write(output);
+    }
+
+    /**
+     * Elimina los archivos temporales y libera el documento.
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void newSheet() {
+        sheet = workbook.createSheet(sheetCount == 0 ? sheetName : sheetName + " (" + (sheetCount + 1) + ")");
+        sheetCount++;
+        rowIndex = 0;
+
+        var header = sheet.createRow(rowIndex++);
+        for (int i = 0; i < columns.size(); i++) {
+            var cell = header.createCell(i);
+            cell.setCellValue(columns.get(i).header());
+            cell.setCellStyle(headerStyle);
+        }
+        sheet.createFreezePane(0, 1);
+    }
+
+    /**
+     * Selecciona columnas por nombre, conservando el orden solicitado.
+     *
+     * @param available Columnas disponibles.
+     * @param names     Nombres de las columnas solicitadas, o {@code null} o vacío para todas.
+     * @return Las columnas seleccionadas.
+     * @throws ClientException Si se solicita una columna que no existe.
+     */
+    public static <T> List<Column<T>> select(List<Column<T>> available, List<String> names) {
+        if (names == null || names.isEmpty()) return available;
+        return names.stream()
+                .distinct()
+                .map(name -> available.stream()
+                        .filter(column -> column.name().equalsIgnoreCase(name.trim()))
+                        .findFirst()
+                        .orElseThrow(() -> new ClientException("Columna desconocida: " + name)))
+                .toList();
+    }
+
+    /**
+     * Columna de la hoja de cálculo.
+     *
+     * @param name   Nombre con el que se solicita la columna.
+     * @param header Texto de la cabecera.
+     * @param value  Función que obtiene el valor de la celda a partir del elemento.
+     */
+    public record Column<T>(String name, String header, Function<T, ?> value) {
+    }
+}
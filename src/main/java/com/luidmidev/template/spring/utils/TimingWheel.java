@@ -0,0 +1,205 @@
+package com.luidmidev.template.spring.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Mapa con expiración por entrada basado en una rueda de tiempo jerárquica.
+ * <p>
+ * El tiempo se divide en ticks de duración fija. Cada nivel de la rueda tiene {@value #SLOTS} ranuras y cubre
+ * {@value #SLOTS} veces el alcance del nivel inferior; una entrada se ubica en el nivel más bajo que alcanza su
+ * vencimiento. Cuando el nivel inferior completa una vuelta, la ranura correspondiente del nivel superior se
+ * redistribuye hacia abajo. Cada ranura es una lista doblemente enlazada, por lo que insertar, buscar y eliminar son
+ * O(1), y avanzar un tick solo recorre las entradas que vencen o se redistribuyen en ese tick.
+ * <p>
+ * Las búsquedas comprueban además el vencimiento exacto de la entrada, de modo que una entrada vencida nunca se
+ * devuelve aunque la rueda aún no haya avanzado hasta su tick. La clase es segura para hilos.
+ *
+ * @param <K> Tipo de la clave.
+ * @param <V> Tipo del valor.
+ */
+public class TimingWheel<K, V> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (BITS * LEVELS);
+
+    private final long tickMillis;
+    private final LongSupplier clock;
+    private final long origin;
+    private final Node<K, V>[][] wheel;
+    private final Map<K, Node<K, V>> index = new HashMap<>();
+
+    private long currentTick;
+
+    /**
+     * @param tickMillis Duración de un tick en milisegundos; es la precisión con la que se liberan las entradas.
+     */
+    public TimingWheel(long tickMillis) {
+        this(tickMillis, () -> System.nanoTime() / 1_000_000);
+    }
+
+    /**
+     * @param tickMillis Duración de un tick en milisegundos.
+     * @param clock      Reloj monotónico en milisegundos.
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, LongSupplier clock) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("La duración del tick debe ser mayor a cero");
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.wheel = new Node[LEVELS][SLOTS];
+        for (var level : wheel) {
+            for (int slot = 0; slot < SLOTS; slot++) level[slot] = Node.sentinel();
+        }
+    }
+
+    /**
+     * Asocia un valor a la clave durante el tiempo indicado, reemplazando la entrada anterior si existe.
+     */
+    public synchronized void put(K key, V value, long ttlMillis) {
+        remove(key);
+        var node = new Node<>(key, value, clock.getAsLong() + ttlMillis);
+        index.put(key, node);
+        place(node);
+    }
+
+    /**
+     * Asocia un valor a la clave solo si no tiene una entrada vigente.
+     *
+     * @return {@code true} si se agregó la entrada.
+     */
+    public synchronized boolean putIfAbsent(K key, V value, long ttlMillis) {
+        if (get(key) != null) return false;
+        put(key, value, ttlMillis);
+        return true;
+    }
+
+    /**
+     * Obtiene el valor de la clave si existe y no ha vencido.
+     */
+    public synchronized V get(K key) {
+        var node = index.get(key);
+        if (node == null) return null;
+        if (node.expiresAt <= clock.getAsLong()) {
+            unlink(node);
+            return null;
+        }
+        return node.value;
+    }
+
+    /**
+     * Elimina la entrada de la clave.
+     *
+     * @return El valor eliminado si existía y no había vencido.
+     */
+    public synchronized V remove(K key) {
+        var node = index.get(key);
+        if (node == null) return null;
+        unlink(node);
+        return node.expiresAt <= clock.getAsLong() ? null : node.value;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Avanza la rueda hasta el instante actual liberando las entradas vencidas.
+     *
+     * @return Número de entradas liberadas.
+     */
+    public synchronized int advance() {
+        var targetTick = (clock.getAsLong() - origin) / tickMillis;
+        var expired = 0;
+
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // Las ranuras superiores se redistribuyen antes de liberar la ranura del nivel inferior
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> (BITS * level)) & MASK));
+                }
+            }
+
+            var head = wheel[0][(int) (currentTick & MASK)];
+            while (head.next != head) {
+                var node = head.next;
+                unlink(node);
+                expired++;
+            }
+        }
+
+        return expired;
+    }
+
+    private void cascade(int level, int slot) {
+        var head = wheel[level][slot];
+        var node = head.next;
+        head.next = head;
+        head.previous = head;
+        while (node != head) {
+            var next = node.next;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void place(Node<K, V> node) {
+        var deadline = Math.max(currentTick + 1, ceilDiv(node.expiresAt - origin, tickMillis));
+        var delta = deadline - currentTick;
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) level++;
+
+        // Un vencimiento fuera del alcance se ubica en la última ranura alcanzable y se redistribuye más adelante
+        if (delta >= SPAN) deadline = currentTick + SPAN - 1;
+
+        var head = wheel[level][(int) ((deadline >>> (BITS * level)) & MASK)];
+        node.previous = head.previous;
+        node.next = head;
+        head.previous.next = node;
+        head.previous = node;
+    }
+
+    private void unlink(Node<K, V> node) {
+        index.remove(node.key, node);
+        if (node.next != null) {
+            node.previous.next = node.next;
+            node.next.previous = node.previous;
+            node.next = null;
+            node.previous = null;
+        }
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static final class Node<K, V> {
+
+        private final K key;
+        private final V value;
+        private final long expiresAt;
+        private Node<K, V> previous;
+        private Node<K, V> next;
+
+        private Node(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private static <K, V> Node<K, V> sentinel() {
+            var node = new Node<K, V>(null, null, Long.MAX_VALUE);
+            node.previous = node;
+            node.next = node;
+            return node;
+        }
+    }
+}
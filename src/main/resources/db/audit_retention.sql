@@ -0,0 +1,24 @@
+-- Tablas de la política de retención de la auditoría de sesiones.
+
+CREATE TABLE IF NOT EXISTS audit_daily_rollup
+(
+    id      BIGINT AUTO_INCREMENT PRIMARY KEY,
+    day     DATE         NOT NULL,
+    user_id BIGINT       NOT NULL,
+    action  VARCHAR(255) NULL,
+    count   BIGINT       NOT NULL,
+    CONSTRAINT uk_audit_daily_rollup UNIQUE (day, user_id, action),
+    INDEX idx_audit_daily_rollup_user_day (user_id, day)
+);
+
+CREATE TABLE IF NOT EXISTS audit_archive
+(
+    id         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    day        DATE         NOT NULL UNIQUE,
+    storage    VARCHAR(255) NOT NULL,
+    location   VARCHAR(255) NOT NULL,
+    row_count  BIGINT       NOT NULL,
+    size_bytes BIGINT       NOT NULL,
+    last_id    BIGINT       NULL,
+    created_at DATETIME(6)  NOT NULL
+);
@@ -0,0 +1,21 @@
+-- Bandeja de salida de emails. Las filas se escriben en la misma transacción que la operación que genera el email
+-- y un proceso en segundo plano las envía por lotes; las enviadas se eliminan.
+-- El índice (status, next_attempt_at, id) resuelve la reserva de los emails pendientes sin recorrer la tabla.
+-- Los secretos (códigos, contraseñas) no se guardan: body contiene marcadores y secret_ref apunta a los valores que
+-- la instancia node mantiene en memoria hasta el envío. Los emails fallidos se guardan sin contenido.
+
+CREATE TABLE IF NOT EXISTS email_outbox
+(
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient       VARCHAR(255)  NOT NULL,
+    subject         VARCHAR(255)  NOT NULL,
+    body            TEXT          NOT NULL,
+    secret_ref      VARCHAR(36)   NULL,
+    node            VARCHAR(36)   NULL,
+    status          VARCHAR(16)   NOT NULL,
+    attempts        INT           NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6)   NOT NULL,
+    last_error      VARCHAR(1000) NULL,
+    created_at      DATETIME(6)   NOT NULL,
+    INDEX idx_email_outbox_status_next_attempt (status, next_attempt_at, id)
+);
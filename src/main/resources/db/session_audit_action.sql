@@ -0,0 +1,20 @@
+-- Código de acción de los registros de auditoría (ver AuditAction), con el que se agrupa audit_daily_rollup.
+-- Necesario en las bases de datos creadas antes de agregar la columna si no se usa spring.jpa.hibernate.ddl-auto=update.
+-- Los registros anteriores quedan sin código y se resumen por su descripción.
+
+SET @exists = (SELECT COUNT(*)
+               FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'session_audit' AND COLUMN_NAME = 'action');
+SET @add_column = IF(@exists > 0, 'SELECT 1', 'ALTER TABLE session_audit ADD COLUMN action VARCHAR(64) NULL');
+PREPARE stmt FROM @add_column;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Último registro incluido en cada archivo de retención, para distinguir los registros que llegan tarde.
+SET @exists = (SELECT COUNT(*)
+               FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_archive' AND COLUMN_NAME = 'last_id');
+SET @add_column = IF(@exists > 0, 'SELECT 1', 'ALTER TABLE audit_archive ADD COLUMN last_id BIGINT NULL');
+PREPARE stmt FROM @add_column;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
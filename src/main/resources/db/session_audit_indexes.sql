@@ -0,0 +1,5 @@
+-- Índices de la auditoría de sesiones para las consultas por usuario y rango de fechas.
+-- El identificador se agrega al final para que el orden (datetime, id) de la paginación por cursor se resuelva
+-- completamente con el índice.
+CREATE INDEX idx_session_audit_user_datetime ON session_audit (user_id, datetime, id);
+CREATE INDEX idx_session_audit_datetime ON session_audit (datetime, id);
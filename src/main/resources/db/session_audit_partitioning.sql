@@ -0,0 +1,40 @@
+-- Particionamiento mensual de session_audit por fecha, para instalaciones con gran volumen de auditoría.
+--
+-- Con particiones, las consultas por rango de fechas solo leen las particiones del rango y la eliminación de
+-- meses antiguos puede hacerse con DROP PARTITION en lugar de borrar filas.
+--
+-- Restricciones de MySQL a tener en cuenta antes de aplicarlo:
+--   * La columna de partición debe formar parte de todas las claves únicas, por lo que la clave primaria pasa a
+--     ser (id, datetime).
+--   * Las tablas particionadas no admiten claves foráneas: se elimina la de user_id. No se debe usar
+--     spring.jpa.hibernate.ddl-auto=update sobre esta tabla, ya que intentaría crearla de nuevo.
+--   * datetime no puede ser nula.
+--
+-- Las particiones de los meses siguientes se crean con audit.partitioning.enabled=true, que divide
+-- periódicamente la partición pmax (ver SessionAuditPartitionMaintainer). Ajuste las particiones iniciales a los
+-- meses con datos antes de ejecutarlo.
+
+SET @fk = (SELECT CONSTRAINT_NAME
+           FROM information_schema.REFERENTIAL_CONSTRAINTS
+           WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'session_audit'
+           LIMIT 1);
+SET @drop_fk = IF(@fk IS NULL, 'SELECT 1', CONCAT('ALTER TABLE session_audit DROP FOREIGN KEY ', @fk));
+PREPARE stmt FROM @drop_fk;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+UPDATE session_audit SET datetime = '1970-01-01 00:00:00' WHERE datetime IS NULL;
+
+ALTER TABLE session_audit
+    MODIFY datetime DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, datetime);
+
+ALTER TABLE session_audit
+    PARTITION BY RANGE COLUMNS (datetime) (
+        PARTITION p_old VALUES LESS THAN ('2026-01-01'),
+        PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+        PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+        PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
@@ -0,0 +1,4 @@
+-- Índice de los códigos de recuperación de contraseña por fecha de creación.
+-- Lo usa la eliminación periódica de códigos expirados (DELETE ... WHERE created_at < ? LIMIT ?), que así recorre
+-- solo las filas expiradas en lugar de la tabla completa.
+CREATE INDEX idx_token_forget_password_created_at ON token_forget_password (created_at);
@@ -0,0 +1,11 @@
+-- Versión de las credenciales de cada usuario. Los tokens autocontenidos llevan la versión vigente al emitirse y se
+-- rechazan cuando la versión del usuario es mayor, lo que revoca los tokens en todas las réplicas y tras reinicios.
+-- Necesario en las bases de datos creadas antes de agregar la columna si no se usa spring.jpa.hibernate.ddl-auto=update.
+
+SET @exists = (SELECT COUNT(*)
+               FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'users' AND COLUMN_NAME = 'credential_version');
+SET @add_column = IF(@exists > 0, 'SELECT 1', 'ALTER TABLE users ADD COLUMN credential_version INT NOT NULL DEFAULT 0');
+PREPARE stmt FROM @add_column;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
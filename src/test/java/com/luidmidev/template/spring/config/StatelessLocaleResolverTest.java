@@ -0,0 +1,78 @@
+package com.luidmidev.template.spring.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatelessLocaleResolverTest {
+
+    private static final Locale SPANISH = new Locale("es");
+
+    private final StatelessLocaleResolver resolver = new StatelessLocaleResolver("localeData", "locale", Duration.ofDays(365), List.of(Locale.ENGLISH, SPANISH), Locale.ENGLISH, TimeZone.getTimeZone("UTC"));
+
+    @Test
+    void whenAcceptLanguageHasWeights_thenHighestSupportedIsUsed() {
+        var request = new MockHttpServletRequest();
+        request.addHeader("Accept-Language", "fr-FR,fr;q=0.9,es-EC;q=0.8,en;q=0.7");
+
+        assertEquals(SPANISH, resolver.resolveLocale(request));
+    }
+
+    @Test
+    void whenParamCookieAndHeaderArePresent_thenParamWinsOverCookieOverHeader() {
+        var request = new MockHttpServletRequest();
+        request.addHeader("Accept-Language", "en");
+        request.setCookies(new Cookie("locale", "es"));
+        assertEquals(SPANISH, resolver.resolveLocale(request));
+
+        request.setParameter("localeData", "en_US");
+        assertEquals(Locale.ENGLISH, resolver.resolveLocale(request));
+    }
+
+    @Test
+    void whenNothingIsSupported_thenDefaultLocaleIsUsed() {
+        var request = new MockHttpServletRequest();
+        request.addHeader("Accept-Language", "de, *;q=0.5");
+        request.setCookies(new Cookie("locale", "xx"));
+
+        assertEquals(Locale.ENGLISH, resolver.resolveLocale(request));
+    }
+
+    @Test
+    void whenLocaleIsSet_thenCookieIsWrittenWithoutSession() {
+        var request = new MockHttpServletRequest();
+        var response = new MockHttpServletResponse();
+
+        resolver.setLocale(request, response, new Locale("es", "EC"));
+
+        assertEquals(SPANISH, resolver.resolveLocale(request));
+        assertTrue(response.getHeader("Set-Cookie").startsWith("locale=es;"));
+        assertNull(request.getSession(false));
+    }
+
+    @Test
+    void whenManyDistinctValuesArrive_thenCacheStaysBoundedAndKeepsCaching() {
+        for (int i = 0; i < 1000; i++) {
+            var request = new MockHttpServletRequest();
+            request.addHeader("Accept-Language", "es-EC;q=0." + i);
+            resolver.resolveLocale(request);
+        }
+        assertTrue(resolver.cachedValues() <= 256);
+
+        var request = new MockHttpServletRequest();
+        request.addHeader("Accept-Language", "es-EC,es;q=0.9");
+        assertEquals(SPANISH, resolver.resolveLocale(request));
+        assertEquals(SPANISH, resolver.resolveLocale(request));
+        assertTrue(resolver.cachedValues() > 0);
+    }
+}
@@ -0,0 +1,123 @@
+package com.luidmidev.template.spring.repositories;
+
+import com.luidmidev.template.spring.models.Authority;
+import com.luidmidev.template.spring.models.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifica el número de sentencias SQL de cada patrón de acceso a usuarios, para detectar regresiones N+1.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.default_batch_fetch_size=50",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+class UserRepositoryFetchPlanTest {
+
+    private static final int USERS = 5;
+
+    @Configuration
+    @AutoConfigurationPackage(basePackages = "com.luidmidev.template.spring")
+    static class Config {
+    }
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        var admin = entityManager.persist(Authority.builder().name("ADMIN").description("Rol de administrador").build());
+        var user = entityManager.persist(Authority.builder().name("USER").description("Rol de usuario").build());
+
+        for (int i = 0; i < USERS; i++) {
+            entityManager.persist(User.builder()
+                    .username("usuario" + i)
+                    .email("usuario" + i + "@sample.com")
+                    .name("Nombre")
+                    .lastname("Apellido")
+                    .password("{noop}secreto")
+                    .cedula("2300826357")
+                    .enabled(true)
+                    .authorities(List.of(admin, user))
+                    .build());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void whenLoadingPrincipal_thenUserAndAuthoritiesUseOneStatement() {
+        var user = repository.findByUsernameOrEmail("usuario0", "usuario0").orElseThrow();
+        assertEquals(2, user.getAuthorities().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void whenFetchingSingleUser_thenUserAndAuthoritiesUseOneStatement() {
+        var id = repository.findByEmail("usuario1@sample.com").orElseThrow().getId();
+        entityManager.clear();
+        statistics.clear();
+
+        var user = repository.findById(id.toString()).orElseThrow();
+        assertEquals(2, user.getAuthorities().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void whenListingAllUsers_thenUsersAndAuthoritiesUseOneStatement() {
+        var users = repository.findAll();
+        users.forEach(user -> assertEquals(2, user.getAuthorities().size()));
+        assertEquals(USERS, users.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void whenListingSummariesWithAuthorities_thenTwoStatementsAreUsed() {
+        var summaries = repository.findSummariesAfter(0L, Limit.of(USERS));
+        var ids = summaries.stream().map(summary -> summary.getId()).toList();
+        var authorities = repository.findAuthorityNames(ids);
+
+        assertEquals(USERS, summaries.size());
+        assertEquals(USERS * 2, authorities.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void whenAuthoritiesAreLoadedLazily_thenTheyAreFetchedInOneBatch() {
+        var users = List.of(
+                repository.findByEmail("usuario0@sample.com").orElseThrow(),
+                repository.findByEmail("usuario1@sample.com").orElseThrow(),
+                repository.findByEmail("usuario2@sample.com").orElseThrow()
+        );
+        statistics.clear();
+
+        users.forEach(user -> assertEquals(2, user.getAuthorities().size()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
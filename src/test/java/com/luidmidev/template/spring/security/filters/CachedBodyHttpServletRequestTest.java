@@ -0,0 +1,55 @@
+package com.luidmidev.template.spring.security.filters;
+
+import jakarta.servlet.ReadListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachedBodyHttpServletRequestTest {
+
+    @Test
+    void whenBodyExceedsMaximum_thenItIsRejected() {
+        var request = new MockHttpServletRequest("POST", "/authenticate");
+        request.setContent(new byte[33]);
+
+        assertThrows(CachedBodyHttpServletRequest.BodyTooLargeException.class, () -> new CachedBodyHttpServletRequest(request, 32));
+    }
+
+    @Test
+    void whenReadListenerIsSet_thenAllDataIsReadImmediately() throws Exception {
+        var body = "{\"username\":\"user\"}".getBytes(StandardCharsets.UTF_8);
+        var request = new MockHttpServletRequest("POST", "/authenticate");
+        request.setContent(body);
+
+        var cached = new CachedBodyHttpServletRequest(request, 32);
+        assertArrayEquals(body, cached.getBody());
+
+        var input = cached.getInputStream();
+        List<String> events = new ArrayList<>();
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() {
+                events.add("data");
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("data", "done"), events);
+    }
+}
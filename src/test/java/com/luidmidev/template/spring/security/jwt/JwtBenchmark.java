@@ -0,0 +1,107 @@
+package com.luidmidev.template.spring.security.jwt;
+
+import com.luidmidev.template.spring.utils.ExpiringLruCache;
+import com.luidmidev.template.spring.security.PublicRoutes;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la obtención de los reclamos de un token desde la caché de tokens verificados de {@link Jwt} con la
+ * verificación completa de la firma y la decodificación del contenido, y mide el costo fijo que el filtro JWT
+ * agrega a cada solicitud: la comparación con las rutas públicas y la extracción del token del encabezado.
+ * <p>
+ * No se ejecuta con las pruebas; se lanza con el método {@link #main(String[])} desde el classpath de pruebas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private String token;
+    private JwtParser parser;
+    private ExpiringLruCache<String, Claims> verifiedClaims;
+    private MockHttpServletRequest publicRequest;
+    private MockHttpServletRequest protectedRequest;
+
+    @Setup
+    public void setUp() {
+        var key = Jwts.SIG.HS512.key().build();
+        token = Jwts.builder()
+                .id("1")
+                .subject("usuario")
+                .claim("uid", 1L)
+                .claim("roles", List.of("USER", "ADMIN"))
+                .claim("enabled", true)
+                .claim("ver", 0)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(key)
+                .compact();
+
+        parser = Jwts.parser().verifyWith(key).build();
+        verifiedClaims = new ExpiringLruCache<>(10000);
+        verifiedClaims.put(Jwt.digest(token), parser.parseSignedClaims(token).getPayload(), Long.MAX_VALUE);
+
+        publicRequest = new MockHttpServletRequest("POST", "/authenticate");
+        protectedRequest = new MockHttpServletRequest("GET", "/users");
+        protectedRequest.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public Claims parse() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims cached() {
+        return verifiedClaims.get(Jwt.digest(Jwt.bearerToken(protectedRequest.getHeader("Authorization"))));
+    }
+
+    @Benchmark
+    public String digest() {
+        return Jwt.digest(token);
+    }
+
+    /**
+     * Solicitud a una ruta pública, que el filtro omite sin leer el encabezado.
+     */
+    @Benchmark
+    public boolean skipPublicRoute() {
+        return PublicRoutes.MATCHER.matches(publicRequest);
+    }
+
+    /**
+     * Solicitud a una ruta protegida: comparación con las rutas públicas y extracción del token.
+     */
+    @Benchmark
+    public CharSequence extractToken() {
+        if (PublicRoutes.MATCHER.matches(protectedRequest)) return null;
+        return Jwt.bearerToken(protectedRequest.getHeader("Authorization"));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,39 @@
+package com.luidmidev.template.spring.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtTest {
+
+    @Test
+    void whenTokensDifferOnlyAboveAscii_thenDigestsDiffer() {
+        // U+0161 y 'a' comparten el byte bajo (0x61)
+        assertNotEquals(Jwt.digest("header.payload.š"), Jwt.digest("header.payload.a"));
+        assertEquals(Jwt.digest("header.payload.a"), Jwt.digest(new StringBuilder("header.payload.a")));
+    }
+
+    @Test
+    void whenTokenIsAViewOverTheHeader_thenDigestMatchesTheEncodedString() throws Exception {
+        var token = "header.payload." + "firma".repeat(400) + "\ud800";
+        var expected = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+
+        var view = Jwt.bearerToken("Bearer " + token);
+
+        assertEquals(expected, Jwt.digest(view));
+        assertEquals(expected, Jwt.digest(view));
+        assertEquals(token, view.toString());
+    }
+
+    @Test
+    void whenHeaderIsNotBearer_thenThereIsNoToken() {
+        assertNull(Jwt.bearerToken(null));
+        assertNull(Jwt.bearerToken("Basic dXN1YXJpbzpjbGF2ZQ=="));
+    }
+}
@@ -0,0 +1,53 @@
+package com.luidmidev.template.spring.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void whenBurstExceedsCapacity_thenRejectsUntilRefill() {
+        var limiter = new TokenBucketRateLimiter(3, 60, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+
+        var retryAfterMillis = limiter.tryAcquire("10.0.0.1");
+        assertTrue(retryAfterMillis > 0 && retryAfterMillis <= 1000);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1100));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+    }
+
+    @Test
+    void whenKeysDiffer_thenBucketsAreIndependent() {
+        var limiter = new TokenBucketRateLimiter(1, 1, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("user@sample.com"));
+        assertTrue(limiter.tryAcquire("user@sample.com") > 0);
+        assertEquals(0, limiter.tryAcquire("other@sample.com"));
+    }
+
+    @Test
+    void whenBucketIsRefilledWhileIdle_thenItIsEvicted() {
+        var limiter = new TokenBucketRateLimiter(2, 60, clock::get);
+
+        limiter.tryAcquire("10.0.0.1");
+        limiter.tryAcquire("10.0.0.2");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.tryAcquire("10.0.0.2");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1500));
+        limiter.evictIdle();
+
+        assertEquals(1, limiter.size());
+    }
+}
@@ -0,0 +1,108 @@
+package com.luidmidev.template.spring.services;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.luidmidev.template.spring.repositories.EmailOutboxJdbcRepository;
+import com.luidmidev.template.spring.repositories.EmailOutboxJdbcRepository.PendingEmail;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailDeliveryWorkerTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final EmailOutboxJdbcRepository repository = mock(EmailOutboxJdbcRepository.class);
+
+    private final EmailSecrets secrets = new EmailSecrets(30);
+
+    private EmailDeliveryWorker worker(int port, int maxAttempts) {
+        var mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        return new EmailDeliveryWorker(repository, secrets, mailSender, "noreply@sample.com", 1, 10, 1_000, 60_000, maxAttempts, 1_000, 60_000, 7);
+    }
+
+    private static List<PendingEmail> pending(int count, int attempts) {
+        var now = LocalDateTime.now();
+        return IntStream.range(0, count)
+                .mapToObj(i -> new PendingEmail(i + 1, "usuario" + i + "@sample.com", "ACTUALIZACIÓN DE DATOS", "Contenido " + i, null, attempts, now))
+                .toList();
+    }
+
+    @Test
+    void whenBatchIsSent_thenAllEmailsArriveAndAreDeleted() {
+        when(repository.claim(anyString(), anyInt(), any())).thenReturn(pending(3, 0));
+
+        var claimed = worker(ServerSetupTest.SMTP.getPort(), 5).deliverBatch();
+
+        assertEquals(3, claimed);
+        assertEquals(3, smtp.getReceivedMessages().length);
+        verify(repository).deleteAll(List.of(1L, 2L, 3L));
+        verify(repository, never()).reschedule(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    void whenServerIsUnreachable_thenEmailsAreRescheduledWithBackoff() {
+        when(repository.claim(anyString(), anyInt(), any())).thenReturn(pending(2, 0));
+
+        worker(1, 5).deliverBatch();
+
+        verify(repository).deleteAll(List.of());
+        verify(repository).reschedule(eq(1L), eq(1), any(), anyString());
+        verify(repository).reschedule(eq(2L), eq(1), any(), anyString());
+    }
+
+    @Test
+    void whenLastAttemptFails_thenEmailIsMarkedFailed() {
+        when(repository.claim(anyString(), anyInt(), any())).thenReturn(pending(1, 4));
+
+        worker(1, 5).deliverBatch();
+
+        verify(repository).fail(eq(1L), eq(5), anyString());
+        verify(repository, never()).reschedule(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    void whenEmailHasSecret_thenItIsInsertedOnlyInTheSentMessage() throws Exception {
+        var reference = secrets.hold(List.of("48213579"));
+        var email = new PendingEmail(1, "usuario@sample.com", "RECUPERACIÓN DE CUENTA", "Su código es: " + EmailSecrets.placeholder(0), reference, 0, LocalDateTime.now());
+        when(repository.claim(anyString(), anyInt(), any())).thenReturn(List.of(email));
+
+        worker(ServerSetupTest.SMTP.getPort(), 5).deliverBatch();
+
+        var message = smtp.getReceivedMessages()[0];
+        assertEquals("RECUPERACIÓN DE CUENTA", message.getSubject());
+        assertTrue(((String) message.getContent()).contains("Su código es: 48213579"));
+        assertNull(secrets.reveal(reference, email.body()));
+    }
+
+    @Test
+    void whenSecretIsNoLongerAvailable_thenEmailIsDiscardedWithoutSending() {
+        var email = new PendingEmail(1, "usuario@sample.com", "RECUPERACIÓN DE CUENTA", "Su código es: " + EmailSecrets.placeholder(0), "referencia-perdida", 0, LocalDateTime.now());
+        when(repository.claim(anyString(), anyInt(), any())).thenReturn(List.of(email));
+
+        worker(ServerSetupTest.SMTP.getPort(), 5).deliverBatch();
+
+        assertEquals(0, smtp.getReceivedMessages().length);
+        verify(repository).fail(eq(1L), eq(1), anyString());
+    }
+}
@@ -0,0 +1,54 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.repositories.EmailOutboxJdbcRepository;
+import com.luidmidev.template.spring.repositories.EmailOutboxJdbcRepository.NewEmail;
+import com.luidmidev.template.spring.utils.MessageTemplate;
+import com.luidmidev.template.spring.utils.MessageTemplates;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxServiceTest {
+
+    private static final Locale LOCALE = new Locale("es");
+
+    private final EmailOutboxJdbcRepository repository = mock(EmailOutboxJdbcRepository.class);
+    private final MessageTemplates templates = mock(MessageTemplates.class);
+    private final EmailSecrets secrets = new EmailSecrets(30);
+    private final EmailOutboxService service = new EmailOutboxService(repository, mock(EmailDeliveryWorker.class), secrets, templates, LOCALE);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenTemplateHasSecret_thenStoredBodyDoesNotContainIt() {
+        var body = MessageTemplate.compile("Usuario: {0}\nContraseña: {1}", LOCALE);
+        when(templates.render(eq("email.user-updated.subject"), eq(LOCALE))).thenReturn("ACTUALIZACIÓN DE DATOS");
+        when(templates.render(eq("email.user-updated.body"), eq(LOCALE), any(Object[].class))).thenAnswer(invocation -> {
+            // Mockito entrega los argumentos variables expandidos a continuación de los fijos
+            var arguments = invocation.getArguments();
+            return body.render(Arrays.copyOfRange(arguments, 2, arguments.length));
+        });
+
+        service.enqueueTemplate("usuario@sample.com", "user-updated", "usuario", EmailOutboxService.secret("Clave-Secreta-123"));
+
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).insertAll(captor.capture());
+        var stored = (NewEmail) captor.getValue().get(0);
+
+        assertFalse(stored.body().contains("Clave-Secreta-123"));
+        assertNotNull(stored.secretRef());
+        assertEquals(secrets.node(), stored.node());
+        assertEquals("Usuario: usuario\nContraseña: Clave-Secreta-123", secrets.reveal(stored.secretRef(), stored.body()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.luidmidev.template.spring.services;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.waipersoft.store.FileStoreService.FileInfo;
+import com.waipersoft.store.targets.mongo.GridFSFileStoreService;
+import org.bson.BsonObjectId;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FileDownloadServiceTest {
+
+    private static final byte[] CONTENT = "contenido del archivo, más largo que el búfer".getBytes(StandardCharsets.UTF_8);
+
+    private final GridFSFileStoreService fileStoreService = mock(GridFSFileStoreService.class, RETURNS_DEEP_STUBS);
+    private final GridFsOperations gridFs = mock(GridFsOperations.class);
+
+    /**
+     * Archivos que el almacén escribió en GridFS, por el valor del campo con su ID.
+     */
+    private final Map<Object, GridFSFile> files = new HashMap<>();
+    private final Map<GridFSFile, byte[]> chunks = new HashMap<>();
+
+    @Test
+    void whenFileIsWrittenThroughTheStore_thenItIsStreamedFromGridFs() throws Exception {
+        simulateStore("_id");
+        var service = new FileDownloadService(fileStoreService, gridFs, "_id", 8);
+
+        var id = fileStoreService.store(new MockMultipartFile("file", "archivo.txt", "text/plain", CONTENT));
+        var download = service.open(id).orElseThrow();
+
+        var output = new ByteArrayOutputStream();
+        service.transfer(download, output);
+
+        assertEquals(CONTENT.length, download.length());
+        assertArrayEquals(CONTENT, output.toByteArray());
+        verify(fileStoreService, never()).download(any());
+    }
+
+    @Test
+    void whenFileIsNotFoundByTheConfiguredField_thenItFailsWithoutLoadingItInMemory() throws Exception {
+        simulateStore("metadata.id");
+        var service = new FileDownloadService(fileStoreService, gridFs, "_id", 8);
+
+        var id = fileStoreService.store(new MockMultipartFile("file", "archivo.txt", "text/plain", CONTENT));
+        var error = assertThrows(IllegalStateException.class, () -> service.open(id));
+
+        assertTrue(error.getMessage().contains("files.gridfs.id-field"));
+        verify(fileStoreService, never()).download(any());
+    }
+
+    /**
+     * Simula el almacén: guarda el archivo en GridFS y devuelve su ID, que GridFS conserva en el campo indicado.
+     */
+    private void simulateStore(String storedField) throws Exception {
+        when(fileStoreService.info(any())).thenReturn(mock(FileInfo.class));
+
+        when(fileStoreService.store(any(MultipartFile.class))).thenAnswer(invocation -> {
+            MultipartFile multipart = invocation.getArgument(0);
+            var objectId = new ObjectId();
+            var file = new GridFSFile(new BsonObjectId(objectId), multipart.getOriginalFilename(), multipart.getSize(), 255, new Date(), null);
+            var id = objectId.toHexString();
+            files.put(storedField + "=" + id, file);
+            chunks.put(file, multipart.getBytes());
+            return id;
+        });
+
+        when(gridFs.findOne(any(Query.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            var criteria = query.getQueryObject();
+            for (var key : criteria.keySet()) {
+                var file = files.get(key + "=" + criteria.get(key));
+                if (file != null) return file;
+            }
+            return null;
+        });
+
+        when(gridFs.getResource(any(GridFSFile.class))).thenAnswer(invocation -> {
+            GridFSFile file = invocation.getArgument(0);
+            return new GridFsResource(file, new ByteArrayInputStream(chunks.get(file)));
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.dto.AuditEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MappedFileAuditSinkTest {
+
+    @TempDir
+    Path directory;
+
+    private final LocalDateTime base = LocalDateTime.now().plusMinutes(1);
+
+    private MappedFileAuditSink open() throws IOException {
+        var sink = new MappedFileAuditSink(directory.toString(), 10, 86_400_000L, 0, 0);
+        sink.open();
+        return sink;
+    }
+
+    private void appendMinutes(MappedFileAuditSink sink, int count) {
+        for (int i = 0; i < count; i++) {
+            sink.append(new AuditEntry(null, base.plusMinutes(i), (long) i, null, "10.0.0." + i, null, "Inicio de sesión " + i));
+        }
+    }
+
+    private List<AuditEntry> scan(LocalDateTime from, LocalDateTime to) throws IOException {
+        var entries = new ArrayList<AuditEntry>();
+        new MappedAuditLogReader(directory).scan(from, to, entries::add);
+        return entries;
+    }
+
+    @Test
+    void whenSegmentsRoll_thenSequentialScanReturnsAllRecordsInOrder() throws IOException {
+        var sink = open();
+        appendMinutes(sink, 25);
+        sink.close();
+
+        var entries = scan(null, null);
+        assertEquals(25, entries.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(i, entries.get(i).getUserId());
+            assertEquals("10.0.0." + i, entries.get(i).getIp());
+            assertEquals("Inicio de sesión " + i, entries.get(i).getDescription());
+        }
+    }
+
+    @Test
+    void whenScanningByTime_thenOnlyRecordsInRangeAreReturned() throws IOException {
+        var sink = open();
+        appendMinutes(sink, 25);
+        sink.close();
+
+        var entries = scan(base.plusMinutes(9), base.plusMinutes(21));
+        assertEquals(12, entries.size());
+        assertEquals(9L, entries.get(0).getUserId());
+        assertEquals(20L, entries.get(entries.size() - 1).getUserId());
+    }
+
+    @Test
+    void whenReopened_thenAppendsAfterLastCommittedRecord() throws IOException {
+        var sink = open();
+        appendMinutes(sink, 5);
+        sink.close();
+
+        var reopened = open();
+        reopened.append(new AuditEntry(null, base, 99L, null, "host inválido", null, "Cierre de sesión"));
+        reopened.close();
+
+        var entries = scan(null, null);
+        assertEquals(6, entries.size());
+        assertEquals(99L, entries.get(5).getUserId());
+        assertNull(entries.get(5).getIp());
+        // Una fecha anterior al último registro se ajusta para mantener el orden del segmento
+        assertEquals(entries.get(4).getDatetime(), entries.get(5).getDatetime());
+    }
+
+    @Test
+    void whenUserIdIsZeroOrMissing_thenItRoundTrips() throws IOException {
+        var sink = open();
+        sink.append(new AuditEntry(null, base, 0L, null, null, null, "Usuario cero"));
+        sink.append(new AuditEntry(null, base, null, null, null, null, "Sin usuario"));
+        sink.close();
+
+        var entries = scan(null, null);
+        assertEquals(0L, entries.get(0).getUserId());
+        assertNull(entries.get(1).getUserId());
+    }
+}
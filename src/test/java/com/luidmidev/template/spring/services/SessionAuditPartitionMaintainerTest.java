@@ -0,0 +1,43 @@
+package com.luidmidev.template.spring.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionAuditPartitionMaintainerTest {
+
+    @Test
+    void whenDeployedMonthsAfterLastPartition_thenEveryMonthGetsItsOwnPartition() {
+        var boundaries = List.of(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 2, 1), LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 1));
+
+        var months = SessionAuditPartitionMaintainer.missingMonths(boundaries, YearMonth.of(2026, 7), 1);
+
+        assertEquals(List.of(YearMonth.of(2026, 4), YearMonth.of(2026, 5), YearMonth.of(2026, 6), YearMonth.of(2026, 7), YearMonth.of(2026, 8)), months);
+    }
+
+    @Test
+    void whenPartitionsAreAhead_thenNothingIsMissing() {
+        var months = SessionAuditPartitionMaintainer.missingMonths(List.of(LocalDate.of(2026, 11, 1)), YearMonth.of(2026, 7), 3);
+
+        assertTrue(months.isEmpty());
+    }
+
+    @Test
+    void whenLastBoundaryIsInsideTheWindow_thenOnlyTheFollowingMonthsAreMissing() {
+        var months = SessionAuditPartitionMaintainer.missingMonths(List.of(LocalDate.of(2026, 8, 1), LocalDate.of(2026, 9, 1)), YearMonth.of(2026, 7), 3);
+
+        assertEquals(List.of(YearMonth.of(2026, 9), YearMonth.of(2026, 10)), months);
+    }
+
+    @Test
+    void whenBoundaryIsMaxValue_thenItIsIgnored() {
+        assertNull(SessionAuditPartitionMaintainer.parseBoundary("MAXVALUE"));
+        assertEquals(LocalDate.of(2026, 4, 1), SessionAuditPartitionMaintainer.parseBoundary("'2026-04-01 00:00:00'"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.luidmidev.template.spring.services;
+
+import com.luidmidev.template.spring.dto.AuditEntry;
+import com.luidmidev.template.spring.models.AuditAction;
+import com.luidmidev.template.spring.repositories.SessionAuditJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SessionAuditWriterTest {
+
+    private final SessionAuditJdbcRepository repository = mock(SessionAuditJdbcRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void whenBufferIsFullWithCallerRuns_thenEntryIsWrittenInANewTransaction() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        // Sin iniciar el hilo de escritura el búfer de un registro se llena con el primero
+        var writer = new SessionAuditWriter(repository, transactionManager, 1, 10, 1_000, SessionAuditWriter.OverflowPolicy.CALLER_RUNS, 100);
+        writer.append(entry());
+
+        var overflow = entry();
+        writer.append(overflow);
+
+        var order = inOrder(transactionManager, repository);
+        order.verify(transactionManager).getTransaction(argThat(definition -> definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        order.verify(repository).insertAll(List.of(overflow));
+        order.verify(transactionManager).commit(any());
+    }
+
+    private static AuditEntry entry() {
+        return new AuditEntry(null, LocalDateTime.now(), 1L, "usuario", "127.0.0.1", AuditAction.LOGIN.name(), "Inicio de sesión");
+    }
+}
@@ -0,0 +1,36 @@
+package com.luidmidev.template.spring.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void whenValueWasAdded_thenMightContainIsAlwaysTrue() {
+        var filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.put("usuario" + i + "@sample.com");
+
+        for (int i = 0; i < 10_000; i++) assertTrue(filter.mightContain("usuario" + i + "@sample.com"));
+    }
+
+    @Test
+    void whenFilterIsAtCapacity_thenFalsePositiveRateStaysNearConfigured() {
+        var filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.put("usuario" + i);
+
+        var falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("otro" + i)) falsePositives++;
+        }
+
+        assertTrue(falsePositives < 300, "Falsos positivos: " + falsePositives);
+    }
+
+    @Test
+    void whenFilterIsEmpty_thenNothingMatches() {
+        var filter = new BloomFilter(100, 0.01);
+        assertFalse(filter.mightContain("admin159"));
+    }
+}
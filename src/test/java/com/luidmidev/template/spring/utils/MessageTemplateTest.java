@@ -0,0 +1,39 @@
+package com.luidmidev.template.spring.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MessageTemplateTest {
+
+    private static final Locale LOCALE = new Locale("es");
+
+    @Test
+    void whenPatternHasSimpleArguments_thenRendersLikeMessageFormat() {
+        var pattern = "El parámetro requerido ''{0}'' no está presente en {1}: '{2}' {0}";
+
+        assertEquals(new MessageFormat(pattern, LOCALE).format(new Object[]{"id", "la solicitud"}), MessageTemplate.compile(pattern, LOCALE).render("id", "la solicitud"));
+    }
+
+    @Test
+    void whenArgumentIsMissing_thenPlaceholderIsKept() {
+        assertEquals("Usuario: ana, roles: {1}", MessageTemplate.compile("Usuario: {0}, roles: {1}", LOCALE).render("ana"));
+    }
+
+    @Test
+    void whenRenderedWithoutArguments_thenPatternIsReturnedAsWritten() {
+        assertEquals("No se ha actualizado '{0}'", MessageTemplate.compile("No se ha actualizado '{0}'", LOCALE).render());
+    }
+
+    @Test
+    void whenArgumentIsNumber_thenFormattedWithLocale() {
+        var pattern = "Total: {0}, media: {1,number,#.##}";
+        var args = new Object[]{1234567, 2.5};
+
+        assertEquals(new MessageFormat(pattern, LOCALE).format(args), MessageTemplate.compile(pattern, LOCALE).render(args));
+        assertEquals(new MessageFormat("{0}", LOCALE).format(new Object[]{1234567}), MessageTemplate.compile("{0}", LOCALE).render(1234567));
+    }
+}
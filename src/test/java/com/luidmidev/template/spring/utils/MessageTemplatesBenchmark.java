@@ -0,0 +1,84 @@
+package com.luidmidev.template.spring.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara {@link MessageTemplates} con el {@code MessageSource} de Spring al resolver mensajes con y sin argumentos.
+ * <p>
+ * No se ejecuta con las pruebas; se lanza con el método {@link #main(String[])} desde el classpath de pruebas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTemplatesBenchmark {
+
+    private static final Locale LOCALE = new Locale("es", "EC");
+
+    private MessageTemplates templates;
+    private ResourceBundleMessageSource messageSource;
+
+    @Setup
+    public void setUp() throws IOException {
+        templates = new MessageTemplates(new String[]{"lang/messages", "lang/emails"}, StandardCharsets.ISO_8859_1);
+
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("lang/messages", "lang/emails");
+        messageSource.setDefaultEncoding(StandardCharsets.ISO_8859_1.name());
+        messageSource.setFallbackToSystemLocale(false);
+    }
+
+    @Benchmark
+    public String messageSourceWithoutArguments() {
+        return messageSource.getMessage("user.not-found", null, LOCALE);
+    }
+
+    @Benchmark
+    public String templatesWithoutArguments() {
+        return templates.render("user.not-found", LOCALE);
+    }
+
+    @Benchmark
+    public String messageSourceWithArgument() {
+        return messageSource.getMessage("exception.missing-request-header", new Object[]{"Authorization"}, LOCALE);
+    }
+
+    @Benchmark
+    public String templatesWithArgument() {
+        return templates.render("exception.missing-request-header", LOCALE, "Authorization");
+    }
+
+    @Benchmark
+    public String messageSourceEmail() {
+        return messageSource.getMessage("email.user-updated.body", new Object[]{"usuario", "No se ha actualizado", "Habilitado", "Si", "Si"}, LOCALE);
+    }
+
+    @Benchmark
+    public String templatesEmail() {
+        return templates.render("email.user-updated.body", LOCALE, "usuario", "No se ha actualizado", "Habilitado", "Si", "Si");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MessageTemplatesBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,58 @@
+package com.luidmidev.template.spring.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private final TimingWheel<String, String> wheel = new TimingWheel<>(10, clock::get);
+
+    @Test
+    void whenEntryIsLive_thenGetReturnsValue() {
+        wheel.put("12345678", "usuario@sample.com", 1_000);
+        clock.addAndGet(999);
+
+        assertEquals("usuario@sample.com", wheel.get("12345678"));
+    }
+
+    @Test
+    void whenTtlElapsed_thenGetReturnsNullEvenBeforeAdvancing() {
+        wheel.put("12345678", "usuario@sample.com", 1_000);
+        clock.addAndGet(1_000);
+
+        assertNull(wheel.get("12345678"));
+    }
+
+    @Test
+    void whenAdvancingPastExpiry_thenEntriesInEveryLevelAreReleased() {
+        wheel.put("corto", "a", 50);
+        wheel.put("medio", "b", 60_000);
+        wheel.put("largo", "c", 86_400_000);
+
+        clock.addAndGet(60_000);
+        assertEquals(2, wheel.advance());
+        assertEquals(1, wheel.size());
+        assertEquals("c", wheel.get("largo"));
+
+        clock.addAndGet(86_400_000);
+        assertEquals(1, wheel.advance());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void whenKeyIsLive_thenPutIfAbsentIsRejectedAndRemoveConsumesIt() {
+        assertTrue(wheel.putIfAbsent("12345678", "a", 1_000));
+        assertFalse(wheel.putIfAbsent("12345678", "b", 1_000));
+
+        assertEquals("a", wheel.remove("12345678"));
+        assertNull(wheel.remove("12345678"));
+        assertTrue(wheel.putIfAbsent("12345678", "b", 1_000));
+    }
+}